@@ -0,0 +1,46 @@
+package com.promptcraft.analysis;
+
+import com.promptcraft.benchmarks.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PromptAnalyzer#analyze} over the whole prompts.json corpus; one operation scores
+ * every prompt once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptAnalysisBenchmark {
+    
+    private PromptAnalyzer analyzer;
+    private List<String> prompts;
+    
+    @Setup
+    public void setUp() {
+        analyzer = new PromptAnalyzer();
+        prompts = Corpus.prompts();
+    }
+    
+    @Benchmark
+    public void analyzeCorpus(Blackhole blackhole) {
+        for (String prompt : prompts) {
+            blackhole.consume(analyzer.analyze(prompt));
+        }
+    }
+}
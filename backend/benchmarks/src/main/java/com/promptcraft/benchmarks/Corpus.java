@@ -0,0 +1,50 @@
+package com.promptcraft.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The official prompt corpus ({@code src/data/prompts.json}). Pass
+ * {@code -Dpromptcraft.corpus=<path>} to point elsewhere; otherwise the file is looked up from
+ * the working directory upwards, so runs from the repo root, backend/ or backend/benchmarks all work.
+ */
+public final class Corpus {
+    
+    private static final Path RELATIVE = Paths.get("src", "data", "prompts.json");
+    
+    private Corpus() {
+    }
+    
+    public static List<String> prompts() {
+        try {
+            List<String> prompts = new ArrayList<>();
+            for (JsonNode item : new ObjectMapper().readTree(locate().toFile())) {
+                prompts.add(item.path("prompt").asText());
+            }
+            return prompts;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static Path locate() {
+        String configured = System.getProperty("promptcraft.corpus");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            if (Files.isRegularFile(dir.resolve(RELATIVE))) {
+                return dir.resolve(RELATIVE);
+            }
+        }
+        throw new IllegalStateException("prompts.json not found; set -Dpromptcraft.corpus=<path>");
+    }
+}
@@ -0,0 +1,80 @@
+package com.promptcraft.model;
+
+import com.promptcraft.benchmarks.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CompressedText} over the prompts.json corpus: encoding every prompt, and the first
+ * {@link CompressedText#text()} call on values loaded from their stored bytes, against plain
+ * UTF-8 decoding of the same prompts. The setup prints the corpus compression ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedTextBenchmark {
+    
+    private List<String> prompts;
+    private byte[][] utf8;
+    private byte[][] stored;
+    
+    @Setup
+    public void setUp() {
+        prompts = Corpus.prompts();
+        utf8 = new byte[prompts.size()][];
+        stored = new byte[prompts.size()][];
+        long utf8Bytes = 0;
+        long storedBytes = 0;
+        int compressed = 0;
+        for (int i = 0; i < prompts.size(); i++) {
+            utf8[i] = prompts.get(i).getBytes(StandardCharsets.UTF_8);
+            stored[i] = CompressedText.encode(prompts.get(i));
+            utf8Bytes += utf8[i].length;
+            storedBytes += stored[i].length;
+            if (CompressedText.fromStored(stored[i]).isCompressed()) {
+                compressed++;
+            }
+        }
+        System.out.printf("%nprompts.json: %d prompts, %d compressed, %d UTF-8 bytes stored as %d (ratio %.2f)%n",
+                prompts.size(), compressed, utf8Bytes, storedBytes, (double) utf8Bytes / storedBytes);
+    }
+    
+    @Benchmark
+    public void encodeCorpus(Blackhole blackhole) {
+        for (String prompt : prompts) {
+            blackhole.consume(CompressedText.encode(prompt));
+        }
+    }
+    
+    // What reading content costs once a template is loaded: text() decodes on first access
+    @Benchmark
+    public void loadAndReadCorpus(Blackhole blackhole) {
+        for (byte[] value : stored) {
+            blackhole.consume(CompressedText.fromStored(value).text());
+        }
+    }
+    
+    // Baseline: the same prompts decoded from uncompressed UTF-8
+    @Benchmark
+    public void plainUtf8Corpus(Blackhole blackhole) {
+        for (byte[] value : utf8) {
+            blackhole.consume(new String(value, StandardCharsets.UTF_8));
+        }
+    }
+}
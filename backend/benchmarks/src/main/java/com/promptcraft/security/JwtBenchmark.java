@@ -0,0 +1,64 @@
+package com.promptcraft.security;
+
+import com.promptcraft.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token creation and validation in {@link JwtTokenProvider}, with and without the
+ * verified-token cache ({@code jwt.cache.enabled}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+    
+    private JwtTokenProvider provider;
+    private UserPrincipal principal;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secret", "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256");
+        ReflectionTestUtils.setField(provider, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(provider, "cacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(provider, "meterRegistry", new SimpleMeterRegistry());
+        provider.init();
+        
+        principal = new UserPrincipal(42L, "bench@promptcraft.dev", User.Role.USER, User.SubscriptionTier.PRO, true);
+        token = provider.generateToken(principal);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken(principal);
+    }
+    
+    @Benchmark
+    public Optional<ParsedToken> validate() {
+        return provider.validate(token);
+    }
+}
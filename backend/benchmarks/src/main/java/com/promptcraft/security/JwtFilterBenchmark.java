@@ -0,0 +1,104 @@
+package com.promptcraft.security;
+
+import com.promptcraft.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter#doFilterInternal}, building
+ * the principal from a warm {@link UserPrincipalCache} (stateful) or from the token's claims
+ * checked against an empty {@link TokenRevocationList} ({@code jwt.stateless.enabled}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+    
+    @Param({"false", "true"})
+    private boolean statelessEnabled;
+    
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secret", "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256");
+        ReflectionTestUtils.setField(provider, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(provider, "cacheEnabled", true);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(provider, "meterRegistry", meterRegistry);
+        provider.init();
+        
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bench@promptcraft.dev");
+        user.setRole(User.Role.USER);
+        user.setSubscriptionTier(User.SubscriptionTier.PRO);
+        user.setActive(true);
+        
+        // Pre-populated, so the stateful path is a cache hit and never reaches the repository
+        UserPrincipalCache principalCache = new UserPrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(principalCache, "ttl", Duration.ofHours(1));
+        principalCache.init();
+        principalCache.put(user);
+        
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "principalCache", principalCache);
+        
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", provider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "revocationList", new TokenRevocationList());
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "statelessEnabled", statelessEnabled);
+        filter.initMetrics();
+        
+        authorization = "Bearer " + provider.generateToken(UserPrincipal.from(user));
+    }
+    
+    @Benchmark
+    public Authentication doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/templates/my-templates");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null) {
+                throw new IllegalStateException("Request was not authenticated");
+            }
+            return authentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.promptcraft.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcraft.benchmarks.Corpus;
+import com.promptcraft.dto.TemplateResponse;
+import com.promptcraft.model.Template;
+import com.promptcraft.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the template listing: {@link TemplateService#mapToResponse} over a page of
+ * entities, and Jackson serialization of the resulting {@code Page<TemplateResponse>}.
+ * Templates are built from the corpus, with every third one favorited.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateMappingBenchmark {
+    
+    @Param({"20", "100"})
+    private int pageSize;
+    
+    private TemplateService templateService;
+    private ObjectMapper objectMapper;
+    private List<Template> templates;
+    private FavoriteIdSet favoritedIds;
+    private Page<TemplateResponse> page;
+    
+    @Setup
+    public void setUp() {
+        templateService = new TemplateService();
+        // Same defaults as the ObjectMapper Spring Boot builds (ISO dates, no FAIL_ON_UNKNOWN_PROPERTIES)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        User creator = new User();
+        creator.setId(7L);
+        creator.setEmail("creator@promptcraft.dev");
+        
+        List<String> prompts = Corpus.prompts();
+        templates = new ArrayList<>(pageSize);
+        List<Long> favorites = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Template template = new Template();
+            template.setId((long) i + 1);
+            template.setTitle("Template " + (i + 1));
+            template.setContent(prompts.get(i % prompts.size()));
+            template.setDescription("Benchmark template");
+            template.setCategory(Template.Category.values()[i % Template.Category.values().length]);
+            template.setForDevs(i % 2 == 0);
+            template.setIsPublic(true);
+            template.setIsOfficial(i % 5 == 0);
+            template.setUsageCount(i * 13);
+            template.setFavoriteCount(i * 3);
+            template.setUser(i % 4 == 0 ? null : creator);
+            template.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusHours(i));
+            template.setUpdatedAt(template.getCreatedAt());
+            templates.add(template);
+            if (i % 3 == 0) {
+                favorites.add(template.getId());
+            }
+        }
+        favoritedIds = FavoriteIdSet.of(favorites);
+        page = new PageImpl<>(mapPage(), PageRequest.of(0, pageSize), 10_000);
+    }
+    
+    @Benchmark
+    public List<TemplateResponse> mapPage() {
+        List<TemplateResponse> responses = new ArrayList<>(templates.size());
+        for (Template template : templates) {
+            responses.add(templateService.mapToResponse(template, favoritedIds));
+        }
+        return responses;
+    }
+    
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(new PageImpl<>(mapPage(), PageRequest.of(0, pageSize), 10_000));
+    }
+}
@@ -0,0 +1,281 @@
+package com.promptcraft.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.promptcraft.PromptCraftApplication;
+import com.promptcraft.metrics.QueryProfiler;
+import com.promptcraft.metrics.StatementBudget;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Starts an embedded Postgres and the backend in this JVM, seeds users and templates, then
+ * drives the REST API with a fixed number of concurrent clients and reports throughput,
+ * p50/p99/p999 latency and JDBC statements per request for each scenario.
+ * <p>
+ * Options are {@code key=value}: {@code users} (100), {@code templates} (2000),
+ * {@code concurrency} (32), {@code warmup} (200 requests per scenario),
+ * {@code scenarios} ({@code public:2000,search:2000,use:2000,login:200}), {@code corpus}
+ * (path to prompts.json), {@code out} (JSON report file) and {@code budgets}
+ * ({@code public:2,use:1}: max Hibernate statements per request for each scenario's endpoint,
+ * checked with the queryprofile profile; any violation or repeated statement exits with 1).
+ * Arguments starting with {@code --} go to Spring, e.g. {@code --template.search.backend=memory}.
+ */
+public class LoadTest {
+    
+    private static final String[] SEARCH_TERMS = {
+            "developer", "marketing", "story", "python", "translator",
+            "teacher", "excel", "game", "interview", "writer"
+    };
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "public", "GET /api/templates/public",
+            "search", "GET /api/templates/public/search",
+            "use", "POST /api/templates/{id}/use",
+            "login", "POST /api/auth/login");
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGES = 50;
+    
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    
+    private String baseUrl;
+    private List<String> tokens;
+    private List<Long> templateIds;
+    private int users;
+    
+    LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Expected key=value or --spring.property=value, got " + arg);
+            }
+        }
+        System.exit(new LoadTest(options).run(springArgs.toArray(new String[0])));
+    }
+    
+    // Returns the process exit status
+    int run(String[] springArgs) throws Exception {
+        users = intOption("users", 100);
+        int templates = intOption("templates", 2000);
+        
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            StatementCounter counter = new StatementCounter();
+            // Passed as command-line arguments so they outrank application.yml; caller's --args come last and win
+            List<String> args = new ArrayList<>(List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--server.port=0",
+                    "--management.server.port=-1", // No actuator listener; the suite reads beans directly
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.promptcraft=WARN"));
+            args.addAll(List.of(springArgs));
+            
+            String budgets = options.get("budgets");
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(PromptCraftApplication.class)
+                    .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(counter));
+            if (budgets != null) {
+                builder.profiles("queryprofile");
+            }
+            
+            try (ConfigurableApplicationContext context = builder.run(args.toArray(new String[0]))) {
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                
+                long start = System.nanoTime();
+                Seeder seeder = new Seeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class));
+                seeder.seedUsers(users);
+                templateIds = seeder.seedTemplates(templates, options.get("corpus"));
+                tokens = login(Math.min(users, intOption("tokens", 50)));
+                System.out.printf("Seeded %d users and %d templates in %d ms%n",
+                        users, templateIds.size(), (System.nanoTime() - start) / 1_000_000);
+                
+                List<ScenarioResult> results = new ArrayList<>();
+                for (String scenario : options.getOrDefault("scenarios", "public:2000,search:2000,use:2000,login:200").split(",")) {
+                    String[] parts = scenario.trim().split(":");
+                    int requests = parts.length > 1 ? Integer.parseInt(parts[1]) : 2000;
+                    results.add(runScenario(parts[0], requests, counter));
+                }
+                report(results);
+                return budgets != null ? checkBudgets(budgets, context.getBean(QueryProfiler.class)) : 0;
+            }
+        }
+    }
+    
+    private static int checkBudgets(String spec, QueryProfiler profiler) {
+        StatementBudget budget = new StatementBudget().forbidRepeats();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String endpoint = ENDPOINTS.get(parts[0]);
+            if (endpoint == null || parts.length != 2) {
+                throw new IllegalArgumentException("Expected scenario:statements in budgets, got " + entry);
+            }
+            budget.allow(endpoint, Integer.parseInt(parts[1]));
+        }
+        
+        List<String> violations = budget.violations(profiler.report());
+        if (violations.isEmpty()) {
+            System.out.println("\nStatement budgets met: " + spec);
+            return 0;
+        }
+        System.out.println("\nStatement budgets exceeded:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        return 1;
+    }
+    
+    private ScenarioResult runScenario(String name, int requests, StatementCounter counter) throws InterruptedException {
+        IntFunction<HttpRequest> requestFactory = switch (name) {
+            case "public" -> i -> authorized(i, "/api/templates/public?page=" + (i % pages()) + "&size=" + PAGE_SIZE).GET().build();
+            case "search" -> i -> authorized(i, "/api/templates/public/search?query=" + SEARCH_TERMS[i % SEARCH_TERMS.length]
+                    + "&size=" + PAGE_SIZE).GET().build();
+            case "use" -> i -> authorized(i, "/api/templates/" + templateIds.get((int) ((i * 7919L) % templateIds.size())) + "/use")
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case "login" -> i -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(loginBody(i % users)))
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown scenario " + name
+                    + "; expected public, search, use or login");
+        };
+        int concurrency = intOption("concurrency", 32);
+        
+        drive(requestFactory, intOption("warmup", 200), concurrency);
+        long statementsBefore = counter.count();
+        long start = System.nanoTime();
+        long[] latencies = new long[requests];
+        long errors = drive(requestFactory, requests, concurrency, latencies);
+        long elapsed = System.nanoTime() - start;
+        return new ScenarioResult(name, concurrency, latencies, errors, elapsed, counter.count() - statementsBefore);
+    }
+    
+    private long drive(IntFunction<HttpRequest> requestFactory, int requests, int concurrency) throws InterruptedException {
+        return drive(requestFactory, requests, concurrency, new long[requests]);
+    }
+    
+    // Each client sends its next request as soon as the previous one completes
+    private long drive(IntFunction<HttpRequest> requestFactory, int requests, int concurrency, long[] latencies)
+            throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            clients.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(requestFactory.apply(i), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+        return errors.get();
+    }
+    
+    private List<String> login(int count) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(loginBody(i)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed for " + Seeder.email(i) + ": " + response.body());
+            }
+            result.add(mapper.readTree(response.body()).path("accessToken").asText());
+        }
+        return result;
+    }
+    
+    private HttpRequest.Builder authorized(int i, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        return tokens.isEmpty() ? builder : builder.header("Authorization", "Bearer " + tokens.get(i % tokens.size()));
+    }
+    
+    private int pages() {
+        return Math.max(1, Math.min(MAX_PAGES, templateIds.size() / PAGE_SIZE));
+    }
+    
+    private static String loginBody(int user) {
+        return "{\"email\":\"" + Seeder.email(user) + "\",\"password\":\"" + Seeder.PASSWORD + "\"}";
+    }
+    
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+    
+    private void report(List<ScenarioResult> results) throws Exception {
+        System.out.printf("%n%-8s %6s %8s %7s %10s %9s %9s %9s %9s %10s%n",
+                "Scenario", "Conc", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "Stmts/req");
+        List<Map<String, Object>> json = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            System.out.printf("%-8s %6d %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %10.2f%n",
+                    result.name(), result.concurrency(), result.requests(), result.errors(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                    result.percentileMillis(100), result.statementsPerRequest());
+            
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("scenario", result.name());
+            entry.put("concurrency", result.concurrency());
+            entry.put("requests", result.requests());
+            entry.put("errors", result.errors());
+            entry.put("throughput", result.throughput());
+            entry.put("p50Ms", result.percentileMillis(50));
+            entry.put("p99Ms", result.percentileMillis(99));
+            entry.put("p999Ms", result.percentileMillis(99.9));
+            entry.put("maxMs", result.percentileMillis(100));
+            entry.put("statementsPerRequest", result.statementsPerRequest());
+            json.add(entry);
+        }
+        
+        String out = options.get("out");
+        if (out != null) {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(out), json);
+            System.out.println("\nWrote " + out);
+        }
+    }
+}
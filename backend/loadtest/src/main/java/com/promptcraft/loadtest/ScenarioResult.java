@@ -0,0 +1,37 @@
+package com.promptcraft.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one scenario run, in nanoseconds, plus the errors and JDBC statements seen
+ * while it ran.
+ */
+public record ScenarioResult(String name, int concurrency, long[] latencies, long errors, long elapsedNanos,
+                             long statements) {
+    
+    public ScenarioResult {
+        latencies = latencies.clone();
+        Arrays.sort(latencies);
+    }
+    
+    public int requests() {
+        return latencies.length;
+    }
+    
+    public double throughput() {
+        return requests() / (elapsedNanos / 1e9);
+    }
+    
+    public double statementsPerRequest() {
+        return requests() == 0 ? 0 : (double) statements / requests();
+    }
+    
+    // Nearest-rank percentile in milliseconds
+    public double percentileMillis(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+        return latencies[Math.max(0, Math.min(latencies.length - 1, rank - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,87 @@
+package com.promptcraft.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcraft.model.Template.Category;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the load-test database: {@code users} accounts sharing one password and
+ * {@code templates} public templates cycled from {@code src/data/prompts.json}.
+ */
+class Seeder {
+    
+    static final String PASSWORD = "loadtest-password";
+    
+    private static final int BATCH_SIZE = 500;
+    private static final Path CORPUS = Paths.get("src", "data", "prompts.json");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    
+    Seeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+    
+    static String email(int user) {
+        return "loadtest" + user + "@promptcraft.dev";
+    }
+    
+    void seedUsers(int users) {
+        // Hashed once: signup cost is not what this suite measures
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{email(i), hash, "Load", "User " + i});
+            if (rows.size() == BATCH_SIZE || i == users - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (email, password_hash, first_name, last_name) "
+                        + "VALUES (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+    
+    // Returns the seeded template ids
+    List<Long> seedTemplates(int templates, String corpusPath) throws IOException {
+        List<JsonNode> corpus = new ArrayList<>();
+        new ObjectMapper().readTree(locate(corpusPath).toFile()).forEach(corpus::add);
+        
+        Category[] categories = Category.values();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < templates; i++) {
+            JsonNode item = corpus.get(i % corpus.size());
+            String title = item.path("act").asText() + (i < corpus.size() ? "" : " #" + (i / corpus.size() + 1));
+            rows.add(new Object[]{title, item.path("prompt").asText(), categories[i % (categories.length - 1)].name(),
+                    item.path("for_devs").asBoolean()});
+            if (rows.size() == BATCH_SIZE || i == templates - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO templates (title, content, category, for_devs, is_public, is_official) "
+                        + "VALUES (?, ?, ?, ?, TRUE, FALSE)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE templates");
+        return jdbcTemplate.queryForList("SELECT id FROM templates WHERE is_public ORDER BY id", Long.class);
+    }
+    
+    // Configured path, else src/data/prompts.json looked up from the working directory upwards
+    private static Path locate(String configured) {
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            if (Files.isRegularFile(dir.resolve(CORPUS))) {
+                return dir.resolve(CORPUS);
+            }
+        }
+        throw new IllegalStateException("prompts.json not found; pass corpus=<path>");
+    }
+}
@@ -0,0 +1,68 @@
+package com.promptcraft.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts every JDBC statement the application prepares, whether it comes from Hibernate,
+ * JdbcTemplate or a native query, by wrapping the application's {@link DataSource}. The load
+ * test reads the count before and after each scenario to get statements per request.
+ */
+public class StatementCounter implements BeanPostProcessor {
+    
+    private final LongAdder statements = new LongAdder();
+    
+    public long count() {
+        return statements.sum();
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? proxy(Connection.class, connection, this::onConnection) : result;
+        });
+    }
+    
+    private Object onConnection(Object connection, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+            statements.increment();
+        }
+        return invoke(connection, method, args);
+    }
+    
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> {
+            // unwrap() must reach the real driver classes, e.g. for the Postgres COPY API
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return invoke(target, method, args);
+            }
+            return handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocation);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
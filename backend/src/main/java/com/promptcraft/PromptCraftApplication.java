@@ -2,8 +2,10 @@ package com.promptcraft;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PromptCraftApplication {
     public static void main(String[] args) {
         SpringApplication.run(PromptCraftApplication.class, args);
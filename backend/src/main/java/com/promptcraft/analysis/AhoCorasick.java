@@ -0,0 +1,126 @@
+package com.promptcraft.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Multi-pattern matcher compiled once into a dense DFA. The alphabet is reduced to the
+ * characters that occur in the patterns (plus one class for everything else), so a text
+ * is matched against every pattern in a single left-to-right pass with one array lookup
+ * per character.
+ */
+final class AhoCorasick {
+    
+    private static final int OTHER = 0;
+    
+    private final int[] asciiClasses = new int[128];
+    private final char[] extraChars;
+    private final int[] extraClasses;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+    
+    AhoCorasick(List<String> patterns) {
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String pattern : patterns) {
+            for (char c : pattern.toCharArray()) {
+                alphabet.add(c);
+            }
+        }
+        List<Character> extras = new ArrayList<>();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClasses[c] = nextClass++;
+            } else {
+                extras.add(c);
+            }
+        }
+        extraChars = new char[extras.size()];
+        extraClasses = new int[extras.size()];
+        for (int i = 0; i < extras.size(); i++) {
+            extraChars[i] = extras.get(i);
+            extraClasses[i] = nextClass++;
+        }
+        alphabetSize = nextClass;
+        
+        // Trie
+        List<int[]> gotos = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        gotos.add(newRow());
+        matches.add(new ArrayList<>());
+        for (int p = 0; p < patterns.size(); p++) {
+            int state = 0;
+            for (char c : patterns.get(p).toCharArray()) {
+                int symbol = classOf(c);
+                if (gotos.get(state)[symbol] < 0) {
+                    gotos.get(state)[symbol] = gotos.size();
+                    gotos.add(newRow());
+                    matches.add(new ArrayList<>());
+                }
+                state = gotos.get(state)[symbol];
+            }
+            matches.get(state).add(p);
+        }
+        
+        // Failure links folded into a complete transition table, breadth first
+        int states = gotos.size();
+        transitions = new int[states * alphabetSize];
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int child = gotos.get(0)[symbol];
+            transitions[symbol] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(fail[state]));
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int child = gotos.get(state)[symbol];
+                int fallback = transitions[fail[state] * alphabetSize + symbol];
+                if (child > 0) {
+                    fail[child] = fallback;
+                    transitions[state * alphabetSize + symbol] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                }
+            }
+        }
+        
+        outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            outputs[state] = matches.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+    
+    int next(int state, char c) {
+        return transitions[state * alphabetSize + classOf(c)];
+    }
+    
+    // Indexes of the patterns ending at this state, including shorter suffix matches
+    int[] outputs(int state) {
+        return outputs[state];
+    }
+    
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int i = Arrays.binarySearch(extraChars, c);
+        return i >= 0 ? extraClasses[i] : OTHER;
+    }
+    
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
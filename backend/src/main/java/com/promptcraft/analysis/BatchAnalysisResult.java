@@ -0,0 +1,22 @@
+package com.promptcraft.analysis;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of the batch analysis stream; index is the item's position in the upload
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchAnalysisResult {
+    private Long index;
+    private Object id;
+    private PromptAnalysis analysis;
+    private String error;
+    
+    public static BatchAnalysisResult failed(long index, String error) {
+        return new BatchAnalysisResult(index, null, null, error);
+    }
+}
@@ -0,0 +1,136 @@
+package com.promptcraft.analysis;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Scores a stream of prompts and writes the results as NDJSON in input order. The input is
+ * either a JSON array or a sequence of root-level values (NDJSON); each item is a prompt
+ * string or an object with a {@code prompt} field. Items are read one at a time and scored
+ * on a shared, bounded fork-join pool. At most {@code analysis.batch.window} items per
+ * request are in flight: once the window is full the reader blocks on the oldest result, so
+ * neither the upload nor the response is ever held in memory. Each item after the first must
+ * be admitted by the caller's quota check; the stream ends with an error line at the first
+ * item that is not.
+ */
+@Service
+public class BatchPromptAnalyzer {
+    
+    @Autowired
+    private PromptAnalyzer promptAnalyzer;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${analysis.batch.parallelism:0}")
+    private int parallelism;
+    
+    @Value("${analysis.batch.window:256}")
+    private int window;
+    
+    private ForkJoinPool pool;
+    
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    public void analyze(InputStream in, OutputStream out, BooleanSupplier admitNext) throws IOException {
+        ArrayDeque<Future<BatchAnalysisResult>> pending = new ArrayDeque<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            long index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                    if (index > 0 && !admitNext.getAsBoolean()) {
+                        drain(generator, pending);
+                        write(generator, BatchAnalysisResult.failed(index,
+                                "Quota exceeded for your subscription plan; remaining items were not scored"));
+                        return;
+                    }
+                    BatchPromptItem item = readItem(parser, token, index);
+                    long itemIndex = index++;
+                    pending.add(pool.submit(() -> new BatchAnalysisResult(
+                            itemIndex, item.getId(), promptAnalyzer.analyze(item.getPrompt()), null)));
+                    if (pending.size() >= window) {
+                        write(generator, await(pending.poll()));
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // Results already read stay valid; the stream ends with an error line for the bad item
+                drain(generator, pending);
+                write(generator, BatchAnalysisResult.failed(index, e.getOriginalMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                drain(generator, pending);
+                write(generator, BatchAnalysisResult.failed(index, e.getMessage()));
+                return;
+            }
+            drain(generator, pending);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private BatchPromptItem readItem(JsonParser parser, JsonToken token, long index) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return new BatchPromptItem(null, parser.getText());
+        }
+        if (token == JsonToken.START_OBJECT) {
+            return objectMapper.readValue(parser, BatchPromptItem.class);
+        }
+        throw new IllegalArgumentException("Item " + index + " is not a prompt string or object");
+    }
+    
+    private void drain(JsonGenerator generator, ArrayDeque<Future<BatchAnalysisResult>> pending) throws IOException {
+        while (!pending.isEmpty()) {
+            write(generator, await(pending.poll()));
+        }
+        generator.flush();
+    }
+    
+    private void write(JsonGenerator generator, BatchAnalysisResult result) throws IOException {
+        generator.writeObject(result);
+        generator.writeRaw('\n');
+    }
+    
+    private static BatchAnalysisResult await(Future<BatchAnalysisResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch analysis failed", e.getCause());
+        }
+    }
+}
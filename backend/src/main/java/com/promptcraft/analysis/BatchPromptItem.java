@@ -0,0 +1,16 @@
+package com.promptcraft.analysis;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Batch input item; other fields (e.g. "act" in src/data/prompts.json) are ignored
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchPromptItem {
+    private Object id;
+    private String prompt;
+}
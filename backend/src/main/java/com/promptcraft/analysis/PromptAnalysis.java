@@ -0,0 +1,48 @@
+package com.promptcraft.analysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// CLEAR analysis result; mirrors the shape returned by the frontend's analyzePrompt()
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptAnalysis {
+    private Integer overallScore;
+    private Scores scores;
+    private List<Suggestion> suggestions;
+    private Stats stats;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Scores {
+        private Integer context;
+        private Integer length;
+        private Integer examples;
+        private Integer action;
+        private Integer requirements;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String type;
+        private String category;
+        private String text;
+        private String example;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stats {
+        private Integer words;
+        private Integer sentences;
+        private Integer characters;
+    }
+}
@@ -0,0 +1,328 @@
+package com.promptcraft.analysis;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Server-side port of the CLEAR scorer in {@code src/utils/promptAnalyzer.js} (Context, Length,
+ * Examples, Action, Requirements). Scores match the frontend; the difference is how they are
+ * computed: every indicator phrase is compiled into one Aho-Corasick automaton, and a single
+ * pass over the lowercased text feeds the automaton and collects the word, sentence, quote and
+ * number counts. The few regexes are compiled once.
+ */
+@Service
+public class PromptAnalyzer {
+    
+    enum Indicator {
+        ROLE, SITUATION, CONSTRAINT, WORD_COUNT, LENGTH_FORMAT, TIME_SPEC, LENGTH_TERM,
+        EXAMPLE, SHOW, COUNTER_EXAMPLE, STRONG_VERB, WEAK_PHRASE, VAGUE_WORD,
+        MUST_HAVE, RESTRICTION, REQUIREMENT_FORMAT, CHECKLIST_SYMBOL,
+        // Cues read by PromptOptimizer, collected in the same pass
+        OPT_STRONG_VERB, OPT_WEAK_PHRASE, OPT_ROLE, DOMAIN_BUSINESS, DOMAIN_SOFTWARE, DOMAIN_DESIGN,
+        DOMAIN_WRITING, DOMAIN_DATA, BREVITY, DEPTH, TONE_TECHNICAL, TONE_BUSINESS, TONE_CREATIVE,
+        LIST_FORMAT, FORMAL, CASUAL
+    }
+    
+    private static final Map<Indicator, List<String>> TERMS = new EnumMap<>(Indicator.class);
+    
+    static {
+        TERMS.put(Indicator.ROLE, List.of("you are", "act as", "imagine you", "as a", "role:", "persona:", "I am a", "I'm a"));
+        TERMS.put(Indicator.SITUATION, List.of("background", "context", "situation", "scenario", "environment", "industry",
+                "market", "company", "project"));
+        TERMS.put(Indicator.CONSTRAINT, List.of("budget", "timeline", "deadline", "limitation", "constraint", "restriction",
+                "audience", "target"));
+        TERMS.put(Indicator.LENGTH_FORMAT, List.of("paragraph", "bullet points", "list", "sentences", "pages", "sections"));
+        TERMS.put(Indicator.LENGTH_TERM, List.of("length:", "size:", "scope:", "keep it under", "maximum", "minimum",
+                "exactly"));
+        TERMS.put(Indicator.WORD_COUNT, List.of("word count", "character count"));
+        TERMS.put(Indicator.TIME_SPEC, List.of("brief", "concise", "detailed", "comprehensive"));
+        TERMS.put(Indicator.EXAMPLE, List.of("example", "for instance", "such as", "like this", "e.g.", "for example",
+                "similar to"));
+        TERMS.put(Indicator.SHOW, List.of("write something like", "in this style", "tone like", "format like",
+                "similar to this"));
+        TERMS.put(Indicator.COUNTER_EXAMPLE, List.of("don't write like", "avoid", "not like", "bad example", "wrong"));
+        TERMS.put(Indicator.STRONG_VERB, List.of("create", "analyze", "rewrite", "summarize", "list", "compare", "evaluate",
+                "recommend", "draft", "design", "plan", "calculate", "develop", "generate", "write", "explain",
+                "implement", "optimize", "build", "construct"));
+        TERMS.put(Indicator.WEAK_PHRASE, List.of("help me with", "help me", "think about", "work on", "do something about",
+                "make something"));
+        TERMS.put(Indicator.VAGUE_WORD, List.of("better", "good", "nice", "some", "stuff", "things"));
+        TERMS.put(Indicator.MUST_HAVE, List.of("must", "required", "requirement", "essential", "mandatory", "necessary",
+                "critical", "need to"));
+        TERMS.put(Indicator.RESTRICTION, List.of("should", "avoid", "exclude", "don't", "not", "restrict", "limit",
+                "constraint", "without"));
+        TERMS.put(Indicator.REQUIREMENT_FORMAT, List.of("format:", "structure:", "style:", "output:", "deliverable:",
+                "json", "markdown", "table", "bullet"));
+        TERMS.put(Indicator.CHECKLIST_SYMBOL, List.of("•", "-", "*"));
+        
+        TERMS.put(Indicator.OPT_STRONG_VERB, List.of("create", "analyze", "write", "develop", "design", "build",
+                "generate", "explain", "summarize", "compare", "evaluate", "list", "draft", "plan", "calculate",
+                "rewrite"));
+        TERMS.put(Indicator.OPT_WEAK_PHRASE, List.of("help me", "can you", "please", "i need", "i want"));
+        TERMS.put(Indicator.OPT_ROLE, List.of("you are", "act as", "as a", "i am a", "i'm a"));
+        TERMS.put(Indicator.DOMAIN_BUSINESS, List.of("market", "business", "sales", "revenue", "strategy"));
+        TERMS.put(Indicator.DOMAIN_SOFTWARE, List.of("code", "program", "software", "develop", "debug", "api"));
+        TERMS.put(Indicator.DOMAIN_DESIGN, List.of("design", "ux", "ui", "user", "interface"));
+        TERMS.put(Indicator.DOMAIN_WRITING, List.of("write", "content", "blog", "article", "copy"));
+        TERMS.put(Indicator.DOMAIN_DATA, List.of("data", "analysis", "analytics", "statistics"));
+        TERMS.put(Indicator.BREVITY, List.of("brief", "short", "concise", "summary"));
+        TERMS.put(Indicator.DEPTH, List.of("detailed", "comprehensive", "thorough", "in-depth"));
+        TERMS.put(Indicator.TONE_TECHNICAL, List.of("technical", "code", "programming"));
+        TERMS.put(Indicator.TONE_BUSINESS, List.of("business", "strategy", "market"));
+        TERMS.put(Indicator.TONE_CREATIVE, List.of("creative", "content", "writing"));
+        TERMS.put(Indicator.LIST_FORMAT, List.of("list", "bullet"));
+        TERMS.put(Indicator.FORMAL, List.of("formal", "professional", "executive"));
+        TERMS.put(Indicator.CASUAL, List.of("casual", "friendly"));
+    }
+    
+    // Checklist headings are matched case-sensitively in the frontend, so they are checked on the original text
+    private static final List<String> CHECKLIST_HEADINGS = List.of("requirements:", "must include:", "criteria:",
+            "specifications:");
+    
+    private static final Pattern WORD_COUNT_PATTERN = Pattern.compile("\\d+\\s*words?|\\d+\\s*characters?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TIME_SPEC_PATTERN = Pattern.compile("\\d+\\s*(?:minute|second|hour)",
+            Pattern.CASE_INSENSITIVE);
+    
+    private static final AhoCorasick MATCHER;
+    private static final int[] TERM_OF_PATTERN;
+    private static final Indicator[] INDICATOR_OF_TERM;
+    private static final int TERM_COUNT;
+    
+    static {
+        List<String> patterns = new ArrayList<>();
+        List<Integer> termOfPattern = new ArrayList<>();
+        List<Indicator> indicatorOfTerm = new ArrayList<>();
+        for (Map.Entry<Indicator, List<String>> entry : TERMS.entrySet()) {
+            for (String term : entry.getValue()) {
+                int termId = indicatorOfTerm.size();
+                indicatorOfTerm.add(entry.getKey());
+                String lower = term.toLowerCase(Locale.ROOT);
+                if (entry.getKey() == Indicator.VAGUE_WORD) {
+                    // Standalone-word check from the frontend: " word ", " word." or " word,"
+                    for (String suffix : List.of(" ", ".", ",")) {
+                        patterns.add(" " + lower + suffix);
+                        termOfPattern.add(termId);
+                    }
+                } else {
+                    patterns.add(lower);
+                    termOfPattern.add(termId);
+                }
+            }
+        }
+        MATCHER = new AhoCorasick(patterns);
+        TERM_OF_PATTERN = termOfPattern.stream().mapToInt(Integer::intValue).toArray();
+        INDICATOR_OF_TERM = indicatorOfTerm.toArray(new Indicator[0]);
+        TERM_COUNT = INDICATOR_OF_TERM.length;
+    }
+    
+    /**
+     * Scores a prompt against the CLEAR framework. Returns null for blank input, like the
+     * frontend analyzer.
+     */
+    public PromptAnalysis analyze(String promptText) {
+        Scan scan = scan(promptText);
+        return scan != null ? scan.analysis() : null;
+    }
+    
+    // Analysis plus the optimizer cues found in the same pass; null for blank input
+    Scan scan(String promptText) {
+        if (promptText == null || promptText.isBlank()) {
+            return null;
+        }
+        String text = promptText.strip();
+        String lower = text.toLowerCase(Locale.ROOT);
+        
+        // Single pass: automaton matches plus word, sentence, quote and number counts
+        boolean[] seenTerm = new boolean[TERM_COUNT];
+        int[] indicatorCounts = new int[Indicator.values().length];
+        int state = 0;
+        int words = 1;
+        int sentences = 0;
+        int quotes = 0;
+        int numbers = 0;
+        boolean inWhitespace = false;
+        boolean inNumber = false;
+        boolean sentenceHasText = false;
+        
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            
+            state = MATCHER.next(state, c);
+            for (int pattern : MATCHER.outputs(state)) {
+                int term = TERM_OF_PATTERN[pattern];
+                if (!seenTerm[term]) {
+                    seenTerm[term] = true;
+                    indicatorCounts[INDICATOR_OF_TERM[term].ordinal()]++;
+                }
+            }
+            
+            boolean whitespace = Character.isWhitespace(c) || Character.isSpaceChar(c);
+            if (whitespace && !inWhitespace) {
+                words++;
+            }
+            inWhitespace = whitespace;
+            
+            if (c == '.' || c == '!' || c == '?') {
+                if (sentenceHasText) {
+                    sentences++;
+                }
+                sentenceHasText = false;
+            } else if (!whitespace) {
+                sentenceHasText = true;
+            }
+            
+            if (c == '"' || c == '\'') {
+                quotes++;
+            }
+            
+            boolean digit = c >= '0' && c <= '9';
+            if (digit && !inNumber) {
+                numbers++;
+            }
+            inNumber = digit;
+        }
+        if (sentenceHasText) {
+            sentences++;
+        }
+        
+        int contextScore = contextScore(indicatorCounts, words);
+        int lengthScore = lengthScore(indicatorCounts, text);
+        int examplesScore = examplesScore(indicatorCounts, quotes);
+        int actionScore = actionScore(indicatorCounts);
+        int requirementsScore = requirementsScore(indicatorCounts, text, numbers);
+        
+        int overallScore = (int) Math.round(
+                (contextScore * 0.20) +
+                (lengthScore * 0.20) +
+                (examplesScore * 0.20) +
+                (actionScore * 0.20) +
+                (requirementsScore * 0.20)
+        );
+        
+        PromptAnalysis analysis = new PromptAnalysis(
+                overallScore,
+                new PromptAnalysis.Scores(contextScore, lengthScore, examplesScore, actionScore, requirementsScore),
+                suggestions(overallScore, contextScore, lengthScore, examplesScore, actionScore, requirementsScore),
+                new PromptAnalysis.Stats(words, sentences, text.length())
+        );
+        return new Scan(text, analysis, indicatorCounts);
+    }
+    
+    // C - CONTEXT: Role, situation, constraints, background
+    private static int contextScore(int[] counts, int words) {
+        int score = 30;
+        score += Math.min(counts[Indicator.ROLE.ordinal()] * 15, 25);
+        score += Math.min(counts[Indicator.SITUATION.ordinal()] * 6, 20);
+        score += Math.min(counts[Indicator.CONSTRAINT.ordinal()] * 8, 20);
+        if (words > 50) score += 10;
+        if (words > 100) score += 15;
+        return clamp(score);
+    }
+    
+    // L - LENGTH: Specific word count, format, time specifications
+    private static int lengthScore(int[] counts, String text) {
+        int score = 40;
+        boolean hasWordCount = counts[Indicator.WORD_COUNT.ordinal()] > 0
+                || WORD_COUNT_PATTERN.matcher(text).find();
+        if (hasWordCount) score += 25;
+        score += Math.min(counts[Indicator.LENGTH_FORMAT.ordinal()] * 10, 25);
+        boolean hasTimeSpec = counts[Indicator.TIME_SPEC.ordinal()] > 0
+                || TIME_SPEC_PATTERN.matcher(text).find();
+        if (hasTimeSpec) score += 15;
+        score += Math.min(counts[Indicator.LENGTH_TERM.ordinal()] * 8, 15);
+        return clamp(score);
+    }
+    
+    // E - EXAMPLES: Good/bad examples, format examples, tone examples
+    private static int examplesScore(int[] counts, int quotes) {
+        int score = 35;
+        score += Math.min(counts[Indicator.EXAMPLE.ordinal()] * 15, 30);
+        score += Math.min(counts[Indicator.SHOW.ordinal()] * 12, 25);
+        score += Math.min(counts[Indicator.COUNTER_EXAMPLE.ordinal()] * 10, 20);
+        if (quotes >= 2) score += 15;
+        return clamp(score);
+    }
+    
+    // A - ACTION: Strong, specific action verbs
+    private static int actionScore(int[] counts) {
+        int score = 45;
+        score += Math.min(counts[Indicator.STRONG_VERB.ordinal()] * 8, 35);
+        score -= counts[Indicator.WEAK_PHRASE.ordinal()] * 12;
+        score -= counts[Indicator.VAGUE_WORD.ordinal()] * 6;
+        return clamp(score);
+    }
+    
+    // R - REQUIREMENTS: Must-haves, restrictions, format requirements
+    private static int requirementsScore(int[] counts, String text, int numbers) {
+        int score = 40;
+        score += Math.min(counts[Indicator.MUST_HAVE.ordinal()] * 8, 25);
+        score += Math.min(counts[Indicator.RESTRICTION.ordinal()] * 6, 20);
+        score += Math.min(counts[Indicator.REQUIREMENT_FORMAT.ordinal()] * 7, 20);
+        boolean hasChecklist = counts[Indicator.CHECKLIST_SYMBOL.ordinal()] > 0
+                || CHECKLIST_HEADINGS.stream().anyMatch(text::contains);
+        if (hasChecklist) score += 20;
+        score += Math.min(numbers * 2, 15);
+        return clamp(score);
+    }
+    
+    private static List<PromptAnalysis.Suggestion> suggestions(int overallScore, int contextScore, int lengthScore,
+                                                               int examplesScore, int actionScore,
+                                                               int requirementsScore) {
+        List<PromptAnalysis.Suggestion> suggestions = new ArrayList<>();
+        
+        if (overallScore >= 80) {
+            suggestions.add(new PromptAnalysis.Suggestion("success", "CLEAR Prompt",
+                    "Excellent prompt quality! This follows the CLEAR framework well.",
+                    "Your prompt should get you 80% of what you want on the first try."));
+        }
+        if (contextScore < 70) {
+            suggestions.add(new PromptAnalysis.Suggestion("error", "Context (C)",
+                    "Add role, situation, and background information.",
+                    "Start with \"As a [role], I need...\" and include relevant background about your situation, "
+                            + "constraints, and audience."));
+        }
+        if (lengthScore < 70) {
+            suggestions.add(new PromptAnalysis.Suggestion("warning", "Length (L)",
+                    "Specify exactly how much content you need.",
+                    "Add specific requirements like \"Write a 300-word blog post\" or \"Keep it under 100 words\" "
+                            + "or \"Three bullet points\"."));
+        }
+        if (examplesScore < 70) {
+            suggestions.add(new PromptAnalysis.Suggestion("info", "Examples (E)",
+                    "Show, don't just tell. Provide examples of what you want.",
+                    "Include examples like: \"Write something like this: [example]\" or demonstrate the tone/style "
+                            + "you want."));
+        }
+        if (actionScore < 70) {
+            suggestions.add(new PromptAnalysis.Suggestion("error", "Action (A)",
+                    "Use strong, specific action verbs instead of vague phrases.",
+                    "Replace \"help me with\" with specific verbs like \"create\", \"analyze\", \"rewrite\", "
+                            + "\"summarize\", or \"list\"."));
+        }
+        if (requirementsScore < 70) {
+            suggestions.add(new PromptAnalysis.Suggestion("warning", "Requirements (R)",
+                    "Add a clear checklist of requirements and constraints.",
+                    "End with \"Requirements:\" followed by bullet points listing must-haves, restrictions, tone, "
+                            + "and format needs."));
+        }
+        return suggestions;
+    }
+    
+    record Scan(String text, PromptAnalysis analysis, int[] indicatorCounts) {
+        
+        boolean has(Indicator indicator) {
+            return indicatorCounts[indicator.ordinal()] > 0;
+        }
+    }
+    
+    private static int clamp(int score) {
+        return Math.max(0, Math.min(100, score));
+    }
+}
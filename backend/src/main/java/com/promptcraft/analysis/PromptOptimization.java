@@ -0,0 +1,16 @@
+package com.promptcraft.analysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// CLEAR rewrite of a prompt with the analysis before and after; mirrors optimizePrompt() in the frontend
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptOptimization {
+    private String originalPrompt;
+    private String optimizedPrompt;
+    private PromptAnalysis originalAnalysis;
+    private PromptAnalysis optimizedAnalysis;
+}
@@ -0,0 +1,249 @@
+package com.promptcraft.analysis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promptcraft.analysis.PromptAnalyzer.Indicator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Server-side port of {@code src/utils/promptOptimizer.js}: rewrites a prompt into CLEAR
+ * sections until it reaches the target score. The keyword checks the frontend does with one
+ * regex each (domain, tone, length and format cues) come from the analyzer's single pass over
+ * the original text. Results are memoized in a cache keyed by a SHA-256 of the prompt, since
+ * many users submit the same prompts. The cache is bounded by the approximate size of the text
+ * it holds ({@code analysis.optimizer.cache.max-bytes}), not by entry count, as prompts are
+ * not limited in length.
+ */
+@Service
+public class PromptOptimizer {
+    
+    public static final int INDUSTRY_STANDARD = 85;
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 1024;
+    
+    private static final Pattern LEADING_WEAK_PHRASE = Pattern.compile(
+            "^(help me|can you|please|i need|i want)\\s*(to\\s*)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEADING_STRONG_VERB = Pattern.compile(
+            "^(create|analyze|write|develop|design|build|generate|explain|summarize|compare|evaluate|list|draft"
+                    + "|plan|calculate|implement)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TOPIC_MARKER = Pattern.compile("about|on|regarding", Pattern.CASE_INSENSITIVE);
+    
+    @Autowired
+    private PromptAnalyzer promptAnalyzer;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${analysis.optimizer.cache.max-bytes:64MB}")
+    private DataSize maxBytes;
+    
+    private Cache<String, Optional<PromptOptimization>> optimizations;
+    
+    @PostConstruct
+    public void init() {
+        optimizations = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String key, Optional<PromptOptimization> value) -> weight(value))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, optimizations, "analysis.optimizations");
+    }
+    
+    /**
+     * Returns the optimized prompt, or empty when the prompt is blank or already scores at
+     * least {@link #INDUSTRY_STANDARD}.
+     */
+    public Optional<PromptOptimization> optimize(String prompt) {
+        if (prompt == null || prompt.isBlank()) {
+            return Optional.empty();
+        }
+        return optimizations.get(hash(prompt.strip()), key -> compute(prompt));
+    }
+    
+    // UTF-16 chars of both prompt texts plus a flat allowance for the key and the two analyses
+    private static int weight(Optional<PromptOptimization> value) {
+        long chars = value.map(result -> (long) result.getOriginalPrompt().length()
+                + result.getOptimizedPrompt().length()).orElse(0L);
+        return (int) Math.min(Integer.MAX_VALUE, 2 * chars + ENTRY_OVERHEAD_BYTES);
+    }
+    
+    private Optional<PromptOptimization> compute(String prompt) {
+        PromptAnalyzer.Scan scan = promptAnalyzer.scan(prompt);
+        PromptAnalysis currentAnalysis = scan.analysis();
+        if (currentAnalysis.getOverallScore() >= INDUSTRY_STANDARD) {
+            return Optional.empty();
+        }
+        
+        String original = scan.text();
+        PromptAnalysis.Scores scores = currentAnalysis.getScores();
+        List<String> sections = new ArrayList<>();
+        
+        boolean hasStrongVerb = scan.has(Indicator.OPT_STRONG_VERB);
+        boolean hasWeakPhrase = scan.has(Indicator.OPT_WEAK_PHRASE);
+        
+        // Extract what the user actually wants from behind a leading "help me" / "can you"
+        String coreAction = original;
+        if (hasWeakPhrase) {
+            coreAction = capitalize(LEADING_WEAK_PHRASE.matcher(original).replaceFirst("").strip());
+        }
+        
+        // C - CONTEXT
+        if (scores.getContext() < 80) {
+            if (!scan.has(Indicator.OPT_ROLE)) {
+                sections.add("**Context:** You are an experienced " + inferDomain(scan) + " with deep expertise in "
+                        + "your field. You understand industry best practices, current trends, and can tailor your "
+                        + "output for the specific audience and situation.");
+            } else {
+                sections.add("**Context:** " + original.split("\n\n")[0]);
+            }
+        }
+        
+        // L - LENGTH
+        if (scores.getLength() < 80) {
+            String suggestedLength = "300-500 words with clear sections";
+            if (currentAnalysis.getStats().getWords() < 20) {
+                suggestedLength = "200-300 words, structured in 3-4 paragraphs";
+            } else if (scan.has(Indicator.BREVITY)) {
+                suggestedLength = "150-200 words, concise and to-the-point";
+            } else if (scan.has(Indicator.DEPTH)) {
+                suggestedLength = "500-800 words with detailed sections";
+            }
+            sections.add("**Length:** Provide a response of approximately " + suggestedLength + ". Use bullet points "
+                    + "for lists and clear formatting for readability.");
+        }
+        
+        // E - EXAMPLES
+        if (scores.getExamples() < 80) {
+            String exampleText = "Use a professional but accessible tone. For example, when explaining concepts, use "
+                    + "clear analogies and concrete examples.";
+            if (scan.has(Indicator.TONE_TECHNICAL)) {
+                exampleText = "Use clear, technical language with specific code examples. For instance: \"This "
+                        + "function iterates through the array and returns the filtered results.\" Include practical "
+                        + "examples that demonstrate the concept.";
+            } else if (scan.has(Indicator.TONE_BUSINESS)) {
+                exampleText = "Use business-focused language with data-driven examples. For instance: \"Based on "
+                        + "market analysis, we recommend increasing digital spend by 20%.\" Support recommendations "
+                        + "with concrete numbers and case studies.";
+            } else if (scan.has(Indicator.TONE_CREATIVE)) {
+                exampleText = "Use engaging, creative language. For example: \"Imagine a world where your customers "
+                        + "feel truly heard...\" Make it compelling with vivid examples and relatable scenarios.";
+            }
+            sections.add("**Examples:** " + exampleText + " Include specific examples such as industry benchmarks, "
+                    + "case studies, or similar successful implementations.");
+        }
+        
+        // A - ACTION
+        if (scores.getAction() < 80) {
+            if (!hasStrongVerb || hasWeakPhrase) {
+                String strongAction = coreAction;
+                if (!LEADING_STRONG_VERB.matcher(strongAction).lookingAt()) {
+                    if (TOPIC_MARKER.matcher(strongAction).find()) {
+                        strongAction = "Analyze and create a comprehensive response about "
+                                + strongAction.toLowerCase(Locale.ROOT);
+                    } else {
+                        strongAction = "Develop and provide " + strongAction.toLowerCase(Locale.ROOT);
+                    }
+                }
+                sections.add("**Action:** " + capitalize(strongAction) + ". Ensure the response is specific, "
+                        + "actionable, and directly addresses the core request.");
+            } else {
+                sections.add("**Action:** " + coreAction + ". Provide clear, specific, and actionable results.");
+            }
+        } else {
+            sections.add("**Action:** " + coreAction);
+        }
+        
+        // R - REQUIREMENTS
+        if (scores.getRequirements() < 80) {
+            List<String> requirements = new ArrayList<>();
+            requirements.add("Include specific, actionable insights and clear recommendations");
+            requirements.add("Support all claims with evidence, data, examples, or industry standards");
+            requirements.add("Use clear section headers, bullet points, and organized formatting");
+            if (scan.has(Indicator.LIST_FORMAT)) {
+                requirements.add("Format as a well-organized bulleted list with clear categories and subcategories");
+            } else {
+                requirements.add("Structure with clear paragraphs, logical flow, and smooth transitions between "
+                        + "sections");
+            }
+            String professionalLevel = scan.has(Indicator.FORMAL) ? "formal and professional"
+                    : scan.has(Indicator.CASUAL) ? "conversational and friendly"
+                    : "professional yet accessible";
+            requirements.add("Maintain a " + professionalLevel + " tone throughout, appropriate for the target "
+                    + "audience");
+            requirements.add("Ensure accuracy, attention to detail, and industry-standard quality");
+            requirements.add("Provide practical, implementable suggestions where applicable");
+            requirements.add("Conclude with key takeaways, action items, or recommended next steps");
+            
+            StringBuilder checklist = new StringBuilder("**Requirements:**");
+            for (String requirement : requirements) {
+                checklist.append("\n• ").append(requirement);
+            }
+            sections.add(checklist.toString());
+        }
+        
+        String optimized = String.join("\n\n", sections);
+        PromptAnalysis optimizedAnalysis = promptAnalyzer.analyze(optimized);
+        
+        // Still below target: append generic enhancements for the weakest components
+        if (optimizedAnalysis.getOverallScore() < INDUSTRY_STANDARD) {
+            PromptAnalysis.Scores optimizedScores = optimizedAnalysis.getScores();
+            List<String> enhancements = new ArrayList<>();
+            if (optimizedScores.getContext() < 75) {
+                enhancements.add("Background information and relevant constraints should be considered when "
+                        + "formulating the response.");
+            }
+            if (optimizedScores.getExamples() < 75) {
+                enhancements.add("Include concrete examples similar to: \"For instance, when implementing this "
+                        + "approach...\" to illustrate key points effectively.");
+            }
+            if (optimizedScores.getRequirements() < 75) {
+                enhancements.add("Additional requirements: Prioritize clarity and completeness. Ensure all aspects "
+                        + "are thoroughly addressed with attention to detail.");
+            }
+            if (!enhancements.isEmpty()) {
+                optimized += "\n\n" + String.join("\n\n", enhancements);
+                optimizedAnalysis = promptAnalyzer.analyze(optimized);
+            }
+        }
+        
+        return Optional.of(new PromptOptimization(original, optimized, currentAnalysis, optimizedAnalysis));
+    }
+    
+    private static String inferDomain(PromptAnalyzer.Scan scan) {
+        if (scan.has(Indicator.DOMAIN_BUSINESS)) return "business strategist";
+        if (scan.has(Indicator.DOMAIN_SOFTWARE)) return "senior software engineer";
+        if (scan.has(Indicator.DOMAIN_DESIGN)) return "UX/UI designer";
+        if (scan.has(Indicator.DOMAIN_WRITING)) return "content strategist";
+        if (scan.has(Indicator.DOMAIN_DATA)) return "data analyst";
+        return "professional";
+    }
+    
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : text.substring(0, 1).toUpperCase(Locale.ROOT) + text.substring(1);
+    }
+    
+    private static String hash(String prompt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(prompt.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
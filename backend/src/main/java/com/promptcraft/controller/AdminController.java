@@ -0,0 +1,33 @@
+package com.promptcraft.controller;
+
+import com.promptcraft.dto.ApiResponse;
+import com.promptcraft.dto.TemplateImportResult;
+import com.promptcraft.service.TemplateImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    
+    @Autowired
+    private TemplateImportService templateImportService;
+    
+    // Body is the prompts.json array (or NDJSON), read as a stream rather than bound
+    @PostMapping(value = "/templates/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importTemplates(HttpServletRequest request) {
+        try {
+            TemplateImportResult result = templateImportService.importOfficial(request.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.promptcraft.controller;
+
+import com.promptcraft.analysis.BatchPromptAnalyzer;
+import com.promptcraft.analysis.PromptAnalysis;
+import com.promptcraft.analysis.PromptAnalyzer;
+import com.promptcraft.dto.AnalyzeRequest;
+import com.promptcraft.security.UserPrincipal;
+import com.promptcraft.service.QuotaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+@RestController
+@RequestMapping("/api/analyze")
+public class AnalysisController {
+    
+    @Autowired
+    private PromptAnalyzer promptAnalyzer;
+    
+    @Autowired
+    private BatchPromptAnalyzer batchPromptAnalyzer;
+    
+    @Autowired
+    private QuotaService quotaService;
+    
+    @PostMapping
+    public ResponseEntity<PromptAnalysis> analyze(@Valid @RequestBody AnalyzeRequest request) {
+        return ResponseEntity.ok(promptAnalyzer.analyze(request.getPrompt()));
+    }
+    
+    // Streams NDJSON results as the upload is read, so the request body is never buffered whole
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void analyzeBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // QuotaFilter charged the request, which covers the first item; each further item costs one unit
+        BooleanSupplier admitNext = UserPrincipal.current()
+                .<BooleanSupplier>map(user -> () -> quotaService.acquire(user.id(), user.tier()).allowed())
+                .orElse(() -> true);
+        batchPromptAnalyzer.analyze(request.getInputStream(), response.getOutputStream(), admitNext);
+    }
+}
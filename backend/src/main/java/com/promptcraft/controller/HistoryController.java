@@ -0,0 +1,75 @@
+package com.promptcraft.controller;
+
+import com.promptcraft.dto.ApiResponse;
+import com.promptcraft.dto.HistoryRequest;
+import com.promptcraft.dto.HistoryResponse;
+import com.promptcraft.service.HistoryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+    
+    @Autowired
+    private HistoryService historyService;
+    
+    @GetMapping
+    public ResponseEntity<?> getHistory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication
+    ) {
+        try {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            Page<HistoryResponse> history = historyService.getHistory(authentication.getName(), pageable);
+            return ResponseEntity.ok(history);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+    
+    // Accepted, not created: the row is written asynchronously by the history writer
+    @PostMapping
+    public ResponseEntity<?> saveHistory(
+            @Valid @RequestBody HistoryRequest request,
+            Authentication authentication
+    ) {
+        try {
+            if (!historyService.saveHistory(request, authentication.getName())) {
+                return ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(new ApiResponse(false, "History is busy, please try again"));
+            }
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(new ApiResponse(true, "History entry queued"));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<?> clearHistory(Authentication authentication) {
+        try {
+            int deleted = historyService.clearHistory(authentication.getName());
+            return ResponseEntity.ok(new ApiResponse(true, "Deleted " + deleted + " history entries"));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
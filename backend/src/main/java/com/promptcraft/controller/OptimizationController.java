@@ -0,0 +1,29 @@
+package com.promptcraft.controller;
+
+import com.promptcraft.analysis.PromptOptimization;
+import com.promptcraft.analysis.PromptOptimizer;
+import com.promptcraft.dto.AnalyzeRequest;
+import com.promptcraft.dto.ApiResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/optimize")
+public class OptimizationController {
+    
+    @Autowired
+    private PromptOptimizer promptOptimizer;
+    
+    @PostMapping
+    public ResponseEntity<?> optimize(@Valid @RequestBody AnalyzeRequest request) {
+        Optional<PromptOptimization> optimization = promptOptimizer.optimize(request.getPrompt());
+        if (optimization.isEmpty()) {
+            return ResponseEntity.ok(new ApiResponse(true, "Prompt already meets the CLEAR standard"));
+        }
+        return ResponseEntity.ok(optimization.get());
+    }
+}
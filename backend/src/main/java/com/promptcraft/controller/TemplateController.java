@@ -1,8 +1,11 @@
 package com.promptcraft.controller;
 
 import com.promptcraft.dto.ApiResponse;
+import com.promptcraft.dto.CursorPage;
+import com.promptcraft.dto.FavoriteResponse;
 import com.promptcraft.dto.TemplateRequest;
 import com.promptcraft.dto.TemplateResponse;
+import com.promptcraft.dto.TemplateSummary;
 import com.promptcraft.model.Template.Category;
 import com.promptcraft.service.TemplateService;
 import jakarta.validation.Valid;
@@ -24,7 +27,7 @@ public class TemplateController {
     private TemplateService templateService;
     
     @GetMapping("/public")
-    public ResponseEntity<Page<TemplateResponse>> getAllPublicTemplates(
+    public ResponseEntity<Page<TemplateSummary>> getAllPublicTemplates(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -36,25 +39,44 @@ public class TemplateController {
         Pageable pageable = PageRequest.of(page, size, sort);
         
         String email = authentication != null ? authentication.getName() : null;
-        Page<TemplateResponse> templates = templateService.getAllPublicTemplates(pageable, email);
+        Page<TemplateSummary> templates = templateService.getAllPublicTemplates(pageable, email);
         return ResponseEntity.ok(templates);
     }
     
+    @GetMapping("/public/cursor")
+    public ResponseEntity<?> getPublicTemplatesAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        try {
+            String email = authentication != null ? authentication.getName() : null;
+            CursorPage<TemplateSummary> templates = templateService.getPublicTemplatesAfter(cursor, size, email);
+            return ResponseEntity.ok(templates);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+    
     @GetMapping("/public/search")
-    public ResponseEntity<Page<TemplateResponse>> searchTemplates(
+    public ResponseEntity<Page<TemplateSummary>> searchTemplates(
             @RequestParam String query,
+            @RequestParam(required = false) Category category,
+            @RequestParam(required = false) Boolean forDevs,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             Authentication authentication
     ) {
         Pageable pageable = PageRequest.of(page, size);
         String email = authentication != null ? authentication.getName() : null;
-        Page<TemplateResponse> templates = templateService.searchTemplates(query, pageable, email);
+        Page<TemplateSummary> templates = templateService.searchTemplates(query, category, forDevs, pageable, email);
         return ResponseEntity.ok(templates);
     }
     
     @GetMapping("/public/category/{category}")
-    public ResponseEntity<Page<TemplateResponse>> getTemplatesByCategory(
+    public ResponseEntity<Page<TemplateSummary>> getTemplatesByCategory(
             @PathVariable Category category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -62,12 +84,31 @@ public class TemplateController {
     ) {
         Pageable pageable = PageRequest.of(page, size);
         String email = authentication != null ? authentication.getName() : null;
-        Page<TemplateResponse> templates = templateService.getTemplatesByCategory(category, pageable, email);
+        Page<TemplateSummary> templates = templateService.getTemplatesByCategory(category, pageable, email);
         return ResponseEntity.ok(templates);
     }
     
+    @GetMapping("/public/category/{category}/cursor")
+    public ResponseEntity<?> getTemplatesByCategoryAfter(
+            @PathVariable Category category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        try {
+            String email = authentication != null ? authentication.getName() : null;
+            CursorPage<TemplateSummary> templates =
+                    templateService.getTemplatesByCategoryAfter(category, cursor, size, email);
+            return ResponseEntity.ok(templates);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+    
     @GetMapping("/public/forDevs/{forDevs}")
-    public ResponseEntity<Page<TemplateResponse>> getTemplatesByForDevs(
+    public ResponseEntity<Page<TemplateSummary>> getTemplatesByForDevs(
             @PathVariable Boolean forDevs,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -75,10 +116,29 @@ public class TemplateController {
     ) {
         Pageable pageable = PageRequest.of(page, size);
         String email = authentication != null ? authentication.getName() : null;
-        Page<TemplateResponse> templates = templateService.getTemplatesByForDevs(forDevs, pageable, email);
+        Page<TemplateSummary> templates = templateService.getTemplatesByForDevs(forDevs, pageable, email);
         return ResponseEntity.ok(templates);
     }
     
+    @GetMapping("/public/forDevs/{forDevs}/cursor")
+    public ResponseEntity<?> getTemplatesByForDevsAfter(
+            @PathVariable Boolean forDevs,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        try {
+            String email = authentication != null ? authentication.getName() : null;
+            CursorPage<TemplateSummary> templates =
+                    templateService.getTemplatesByForDevsAfter(forDevs, cursor, size, email);
+            return ResponseEntity.ok(templates);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getTemplateById(
             @PathVariable Long id,
@@ -152,4 +212,28 @@ public class TemplateController {
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+    
+    @PostMapping("/{id}/favorite")
+    public ResponseEntity<?> addFavorite(@PathVariable Long id, Authentication authentication) {
+        try {
+            FavoriteResponse favorite = templateService.addFavorite(id, authentication.getName());
+            return ResponseEntity.ok(favorite);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/{id}/favorite")
+    public ResponseEntity<?> removeFavorite(@PathVariable Long id, Authentication authentication) {
+        try {
+            FavoriteResponse favorite = templateService.removeFavorite(id, authentication.getName());
+            return ResponseEntity.ok(favorite);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
 }
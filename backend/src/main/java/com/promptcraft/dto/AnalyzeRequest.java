@@ -0,0 +1,10 @@
+package com.promptcraft.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class AnalyzeRequest {
+    @NotBlank(message = "Prompt is required")
+    private String prompt;
+}
@@ -0,0 +1,15 @@
+package com.promptcraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor; // Opaque; pass back as ?cursor= to fetch the following page
+}
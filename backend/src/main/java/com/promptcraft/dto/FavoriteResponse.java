@@ -0,0 +1,12 @@
+package com.promptcraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FavoriteResponse {
+    private Long templateId;
+    private Boolean isFavorited;
+    private Integer favoriteCount;
+}
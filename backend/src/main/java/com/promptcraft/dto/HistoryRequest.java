@@ -0,0 +1,16 @@
+package com.promptcraft.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class HistoryRequest {
+    @NotBlank(message = "Prompt is required")
+    private String prompt;
+    
+    // Analysis computed by the client; scored on the server when missing
+    private JsonNode analysis;
+    
+    private Integer qualityScore;
+}
@@ -0,0 +1,19 @@
+package com.promptcraft.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class HistoryResponse {
+    private Long id;
+    private String prompt;
+    
+    // Stored as JSON text; written through without re-parsing
+    @JsonRawValue
+    private String analysis;
+    
+    private Integer qualityScore;
+    private LocalDateTime createdAt;
+}
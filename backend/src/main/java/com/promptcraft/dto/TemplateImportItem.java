@@ -0,0 +1,17 @@
+package com.promptcraft.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+// One entry of src/data/prompts.json; "content" wins over "prompt" when both are present
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TemplateImportItem {
+    private String act;
+    private String prompt;
+    private String content;
+    
+    @JsonProperty("for_devs")
+    private Boolean forDevs;
+}
@@ -0,0 +1,15 @@
+package com.promptcraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TemplateImportResult {
+    private Long read;
+    private Long written; // Inserted, or updated because the category or for_devs flag changed
+    private Long unchanged;
+    private Long skipped; // Missing a title or content, or a title over 200 characters
+    private Long elapsedMs;
+    private Long rowsPerSecond;
+}
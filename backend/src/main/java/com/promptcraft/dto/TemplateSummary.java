@@ -0,0 +1,51 @@
+package com.promptcraft.dto;
+
+import com.promptcraft.model.Template.Category;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Card-grid view of a template: selected by JPQL constructor query, never loads the full content
+@Data
+@NoArgsConstructor
+public class TemplateSummary {
+    public static final int PREVIEW_LENGTH = 200;
+    
+    private Long id;
+    private String title;
+    private String contentPreview;
+    private String description;
+    private Category category;
+    private Boolean forDevs;
+    private Boolean isPublic;
+    private Boolean isOfficial;
+    private Integer usageCount;
+    private Integer favoriteCount;
+    private Boolean isFavorited;
+    private Long userId;
+    private String creatorEmail;
+    private String snippet; // Highlighted match, only set for search results
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public TemplateSummary(Long id, String title, String contentPreview, String description, Category category,
+                           Boolean forDevs, Boolean isPublic, Boolean isOfficial, Integer usageCount,
+                           Integer favoriteCount, Long userId, String creatorEmail,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.contentPreview = contentPreview;
+        this.description = description;
+        this.category = category;
+        this.forDevs = forDevs;
+        this.isPublic = isPublic;
+        this.isOfficial = isOfficial;
+        this.usageCount = usageCount;
+        this.favoriteCount = favoriteCount;
+        this.userId = userId;
+        this.creatorEmail = creatorEmail;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
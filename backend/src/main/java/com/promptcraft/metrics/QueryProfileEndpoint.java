@@ -0,0 +1,31 @@
+package com.promptcraft.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/queryprofile} returns the {@link QueryProfiler} report, worst endpoint
+ * first; {@code DELETE} starts a fresh one.
+ */
+@Component
+@Profile("queryprofile")
+@Endpoint(id = "queryprofile")
+public class QueryProfileEndpoint {
+    
+    @Autowired
+    private QueryProfiler profiler;
+    
+    @ReadOperation
+    public QueryProfiler.Report report() {
+        return profiler.report();
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
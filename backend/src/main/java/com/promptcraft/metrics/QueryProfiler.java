@@ -0,0 +1,139 @@
+package com.promptcraft.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Development-time query profiler, active with {@code --spring.profiles.active=queryprofile}.
+ * Groups each request's Hibernate statements by normalized SQL (literals and IN lists
+ * collapsed), keeps per-endpoint totals, and flags a shape run {@code query-profile.repeat-threshold}
+ * or more times in one request as a likely N+1. A warning is logged each time an endpoint hits
+ * a new worst case; the full report is served at {@code /actuator/queryprofile}.
+ */
+@Component
+@Profile("queryprofile")
+public class QueryProfiler {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryProfiler.class);
+    
+    // Caps memory if some endpoint builds SQL dynamically
+    private static final int MAX_SHAPES_PER_ENDPOINT = 200;
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    
+    public record ShapeReport(String sql, long executions, int maxPerRequest, long repeatedRequests) {
+    }
+    
+    public record EndpointReport(String endpoint, long requests, double avgStatements, int maxStatements,
+                                 double maxMillis, List<ShapeReport> shapes) {
+    }
+    
+    public record Report(int repeatThreshold, List<EndpointReport> endpoints) {
+    }
+    
+    private static final class ShapeStats {
+        final LongAdder executions = new LongAdder();
+        final AtomicInteger maxPerRequest = new AtomicInteger();
+        final LongAdder repeatedRequests = new LongAdder();
+    }
+    
+    private static final class EndpointStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final AtomicInteger maxStatements = new AtomicInteger();
+        final AtomicLong maxNanos = new AtomicLong();
+        final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    }
+    
+    @Value("${query-profile.repeat-threshold:3}")
+    private int repeatThreshold;
+    
+    @Value("${query-profile.top-shapes:10}")
+    private int topShapes;
+    
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    
+    /** Records one request; {@code endpoint} is "METHOD /uri/{pattern}". */
+    public void record(String endpoint, SqlStatementCounter.Capture statements, long elapsedNanos) {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        int count = statements.count();
+        stats.requests.increment();
+        stats.statements.add(count);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (count > stats.maxStatements.getAndAccumulate(count, Math::max)) {
+            log.info("Query profile: {} ran {} statements in {} ms", endpoint, count, elapsedNanos / 1_000_000);
+        }
+        
+        Map<String, Integer> shapes = new HashMap<>();
+        for (String sql : statements.sql()) {
+            shapes.merge(normalize(sql), 1, Integer::sum);
+        }
+        shapes.forEach((sql, repeats) -> {
+            ShapeStats shape = stats.shapes.get(sql);
+            if (shape == null) {
+                if (stats.shapes.size() >= MAX_SHAPES_PER_ENDPOINT) {
+                    return;
+                }
+                shape = stats.shapes.computeIfAbsent(sql, key -> new ShapeStats());
+            }
+            shape.executions.add(repeats);
+            int previousMax = shape.maxPerRequest.getAndAccumulate(repeats, Math::max);
+            if (repeats >= repeatThreshold) {
+                shape.repeatedRequests.increment();
+                if (repeats > previousMax) {
+                    log.warn("Possible N+1: {} ran the same statement {} times: {}", endpoint, repeats, sql);
+                }
+            }
+        });
+    }
+    
+    public Report report() {
+        List<EndpointReport> result = endpoints.entrySet().stream()
+                .map(entry -> endpointReport(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingInt(EndpointReport::maxStatements).reversed()
+                        .thenComparing(EndpointReport::endpoint))
+                .toList();
+        return new Report(repeatThreshold, result);
+    }
+    
+    private EndpointReport endpointReport(String endpoint, EndpointStats stats) {
+        long requests = stats.requests.sum();
+        List<ShapeReport> shapes = stats.shapes.entrySet().stream()
+                .map(entry -> new ShapeReport(entry.getKey(), entry.getValue().executions.sum(),
+                        entry.getValue().maxPerRequest.get(), entry.getValue().repeatedRequests.sum()))
+                .sorted(Comparator.comparingInt(ShapeReport::maxPerRequest)
+                        .thenComparingLong(ShapeReport::executions).reversed())
+                .limit(topShapes)
+                .toList();
+        return new EndpointReport(endpoint, requests, requests > 0 ? (double) stats.statements.sum() / requests : 0,
+                stats.maxStatements.get(), stats.maxNanos.get() / 1_000_000.0, shapes);
+    }
+    
+    public void reset() {
+        endpoints.clear();
+    }
+    
+    // Same statement shape regardless of literal values, IN-list length or formatting
+    static String normalize(String sql) {
+        String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+}
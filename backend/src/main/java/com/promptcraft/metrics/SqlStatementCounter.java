@@ -0,0 +1,65 @@
+package com.promptcraft.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin}
+ * and {@link #end()}, optionally keeping their text for the {@link QueryProfiler}. Registered
+ * as the session factory's {@link StatementInspector}, so statements issued through
+ * {@code JdbcTemplate} are not seen.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    
+    // Statement text kept per request; anything beyond is only counted
+    private static final int MAX_CAPTURED = 1000;
+    
+    private static final ThreadLocal<Capture> CURRENT = new ThreadLocal<>();
+    
+    /** Statements seen on one thread; {@code sql} is empty unless text was captured. */
+    public static final class Capture {
+        
+        private final boolean captureSql;
+        private final List<String> sql = new ArrayList<>();
+        private int count;
+        
+        private Capture(boolean captureSql) {
+            this.captureSql = captureSql;
+        }
+        
+        public int count() {
+            return count;
+        }
+        
+        public List<String> sql() {
+            return sql;
+        }
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        Capture capture = CURRENT.get();
+        if (capture != null) {
+            capture.count++;
+            if (capture.captureSql && capture.sql.size() < MAX_CAPTURED) {
+                capture.sql.add(sql);
+            }
+        }
+        return sql;
+    }
+    
+    public void begin(boolean captureSql) {
+        CURRENT.set(new Capture(captureSql));
+    }
+    
+    // Statements seen since begin(); stops counting on this thread
+    public Capture end() {
+        Capture capture = CURRENT.get();
+        CURRENT.remove();
+        return capture != null ? capture : new Capture(false);
+    }
+}
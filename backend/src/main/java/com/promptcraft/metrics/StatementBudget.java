@@ -0,0 +1,67 @@
+package com.promptcraft.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint statement budgets, checked against a {@link QueryProfiler} report after the
+ * endpoints have been exercised (in a test or the load test, with the queryprofile profile):
+ * <pre>
+ * new StatementBudget()
+ *         .allow("GET /api/templates/public", 2)
+ *         .allow("POST /api/templates/{id}/use", 1)
+ *         .forbidRepeats()
+ *         .verify(profiler.report());
+ * </pre>
+ * Endpoints are "METHOD /uri/{pattern}" as in the report; limits apply to the worst request.
+ */
+public class StatementBudget {
+    
+    private final Map<String, Integer> budgets = new LinkedHashMap<>();
+    private boolean forbidRepeats;
+    
+    public StatementBudget allow(String endpoint, int maxStatements) {
+        budgets.put(endpoint, maxStatements);
+        return this;
+    }
+    
+    // Also fail budgeted endpoints that repeated a statement shape past the profiler's threshold
+    public StatementBudget forbidRepeats() {
+        forbidRepeats = true;
+        return this;
+    }
+    
+    public List<String> violations(QueryProfiler.Report report) {
+        Map<String, QueryProfiler.EndpointReport> endpoints = new LinkedHashMap<>();
+        report.endpoints().forEach(endpoint -> endpoints.put(endpoint.endpoint(), endpoint));
+        
+        List<String> violations = new ArrayList<>();
+        budgets.forEach((name, budget) -> {
+            QueryProfiler.EndpointReport endpoint = endpoints.get(name);
+            if (endpoint == null) {
+                // Most likely a typo in the endpoint pattern
+                violations.add(name + ": no requests recorded");
+                return;
+            }
+            if (endpoint.maxStatements() > budget) {
+                violations.add(name + ": " + endpoint.maxStatements() + " statements, budget " + budget);
+            }
+            if (forbidRepeats) {
+                endpoint.shapes().stream()
+                        .filter(shape -> shape.repeatedRequests() > 0)
+                        .forEach(shape -> violations.add(name + ": repeated " + shape.maxPerRequest()
+                                + " times: " + shape.sql()));
+            }
+        });
+        return violations;
+    }
+    
+    public void verify(QueryProfiler.Report report) {
+        List<String> violations = violations(report);
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Statement budget exceeded:\n  " + String.join("\n  ", violations));
+        }
+    }
+}
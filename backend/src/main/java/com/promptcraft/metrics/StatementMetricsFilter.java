@@ -0,0 +1,66 @@
+package com.promptcraft.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements each request ran as {@code http.server.statements},
+ * tagged like {@code http.server.requests} by method and URI pattern. Runs ahead of the
+ * security chain so the JWT filter's user lookup is included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementMetricsFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private SqlStatementCounter statementCounter;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Present only with the queryprofile profile
+    @Autowired(required = false)
+    private QueryProfiler profiler;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        statementCounter.begin(profiler != null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Capture statements = statementCounter.end();
+            String uri = uri(request);
+            DistributionSummary.builder("http.server.statements")
+                    .description("SQL statements run by Hibernate per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements.count());
+            if (profiler != null) {
+                profiler.record(request.getMethod() + " " + uri, statements, System.nanoTime() - start);
+            }
+        }
+    }
+    
+    // Unmatched requests share one tag value, as in http.server.requests
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,109 @@
+package com.promptcraft.model;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Text stored as a BYTEA body: one header byte, then either the raw UTF-8 bytes or, for
+ * bodies of at least {@link #THRESHOLD} bytes that shrink, the original length and an LZ4
+ * block. Values loaded from the database keep only the stored bytes and decompress on the
+ * first {@link #text()} call.
+ */
+public final class CompressedText {
+    
+    public static final int THRESHOLD = 256;
+    
+    static final byte RAW = 0;
+    static final byte LZ4 = 1;
+    
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+    
+    private final byte[] stored;
+    private volatile String text;
+    
+    private CompressedText(byte[] stored, String text) {
+        this.stored = stored;
+        this.text = text;
+    }
+    
+    public static CompressedText of(String text) {
+        return text == null ? null : new CompressedText(encode(text), text);
+    }
+    
+    public static CompressedText fromStored(byte[] stored) {
+        return stored == null ? null : new CompressedText(stored, null);
+    }
+    
+    public static byte[] encode(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= THRESHOLD) {
+            int maxLength = COMPRESSOR.maxCompressedLength(raw.length);
+            byte[] buffer = new byte[5 + maxLength];
+            int compressedLength = COMPRESSOR.compress(raw, 0, raw.length, buffer, 5, maxLength);
+            if (5 + compressedLength < 1 + raw.length) {
+                buffer[0] = LZ4;
+                ByteBuffer.wrap(buffer, 1, 4).putInt(raw.length);
+                return Arrays.copyOf(buffer, 5 + compressedLength);
+            }
+        }
+        byte[] stored = new byte[1 + raw.length];
+        stored[0] = RAW;
+        System.arraycopy(raw, 0, stored, 1, raw.length);
+        return stored;
+    }
+    
+    public static String decode(byte[] stored) {
+        if (stored.length == 0) {
+            return "";
+        }
+        switch (stored[0]) {
+            case RAW:
+                return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case LZ4:
+                int length = ByteBuffer.wrap(stored, 1, 4).getInt();
+                byte[] raw = new byte[length];
+                DECOMPRESSOR.decompress(stored, 5, raw, 0, length);
+                return new String(raw, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("Unknown text encoding " + stored[0]);
+        }
+    }
+    
+    public String text() {
+        String value = text;
+        if (value == null) {
+            value = decode(stored);
+            text = value;
+        }
+        return value;
+    }
+    
+    public byte[] stored() {
+        return stored;
+    }
+    
+    public boolean isCompressed() {
+        return stored.length > 0 && stored[0] == LZ4;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof CompressedText other && Arrays.equals(stored, other.stored));
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(stored);
+    }
+    
+    @Override
+    public String toString() {
+        return text();
+    }
+}
@@ -0,0 +1,19 @@
+package com.promptcraft.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class CompressedTextConverter implements AttributeConverter<CompressedText, byte[]> {
+    
+    @Override
+    public byte[] convertToDatabaseColumn(CompressedText attribute) {
+        return attribute != null ? attribute.stored() : null;
+    }
+    
+    // Keeps the stored bytes; decompression waits until the text is read
+    @Override
+    public CompressedText convertToEntityAttribute(byte[] dbData) {
+        return CompressedText.fromStored(dbData);
+    }
+}
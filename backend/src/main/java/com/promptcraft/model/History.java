@@ -15,19 +15,23 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class History {
     
+    // Pooled sequence ids (the sequence steps by 50) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "history_id_seq")
+    @SequenceGenerator(name = "history_id_seq", sequenceName = "history_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String prompt;
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private CompressedText prompt;
     
-    @Column(columnDefinition = "TEXT")
-    private String analysis;
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "BYTEA")
+    private CompressedText analysis;
     
     @Column
     private Integer qualityScore;
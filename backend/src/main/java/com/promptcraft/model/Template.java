@@ -44,10 +44,12 @@ public class Template {
     @Column(nullable = false)
     private Boolean isOfficial = false; // Official templates from admin
     
-    @Column(nullable = false)
+    // Written only by UsageCountBuffer's SQL increments; an entity save must not overwrite it
+    @Column(nullable = false, updatable = false)
     private Integer usageCount = 0;
     
-    @Column(nullable = false)
+    // Written only by FavoriteRepository's add/remove statements; an entity save must not overwrite it
+    @Column(nullable = false, updatable = false)
     private Integer favoriteCount = 0;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -76,18 +78,4 @@ public class Template {
         PRODUCTIVITY,
         OTHER
     }
-    
-    public void incrementUsageCount() {
-        this.usageCount++;
-    }
-    
-    public void incrementFavoriteCount() {
-        this.favoriteCount++;
-    }
-    
-    public void decrementFavoriteCount() {
-        if (this.favoriteCount > 0) {
-            this.favoriteCount--;
-        }
-    }
 }
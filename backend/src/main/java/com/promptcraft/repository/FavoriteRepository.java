@@ -4,8 +4,11 @@ import com.promptcraft.model.Favorite;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,31 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     Optional<Favorite> findByUserIdAndTemplateId(Long userId, Long templateId);
     Boolean existsByUserIdAndTemplateId(Long userId, Long templateId);
     void deleteByUserIdAndTemplateId(Long userId, Long templateId);
+    
+    // All of a user's favorited template IDs, loaded once into FavoriteCache
+    @Query("SELECT f.template.id FROM Favorite f WHERE f.user.id = :userId")
+    List<Long> findTemplateIdsByUserId(@Param("userId") Long userId);
+    
+    // Favorites a visible template and bumps its counter in one statement; repeating it changes nothing
+    @Query(value = "WITH target AS (" +
+            "SELECT id, favorite_count FROM templates WHERE id = :templateId AND (is_public OR user_id = :userId)), " +
+            "inserted AS (INSERT INTO favorites (user_id, template_id) SELECT :userId, id FROM target " +
+            "ON CONFLICT (user_id, template_id) DO NOTHING RETURNING template_id), " +
+            "updated AS (UPDATE templates SET favorite_count = favorite_count + 1 " +
+            "WHERE id IN (SELECT template_id FROM inserted) RETURNING favorite_count) " +
+            "SELECT EXISTS (SELECT 1 FROM target) AS found, EXISTS (SELECT 1 FROM inserted) AS changed, " +
+            "COALESCE((SELECT favorite_count FROM updated), (SELECT favorite_count FROM target)) AS \"favoriteCount\"",
+            nativeQuery = true)
+    FavoriteToggle addFavorite(@Param("userId") Long userId, @Param("templateId") Long templateId);
+    
+    // Removes the favorite and decrements the counter only if a row was actually deleted
+    @Query(value = "WITH target AS (SELECT id, favorite_count FROM templates WHERE id = :templateId), " +
+            "deleted AS (DELETE FROM favorites WHERE user_id = :userId AND template_id = :templateId " +
+            "RETURNING template_id), " +
+            "updated AS (UPDATE templates SET favorite_count = GREATEST(favorite_count - 1, 0) " +
+            "WHERE id IN (SELECT template_id FROM deleted) RETURNING favorite_count) " +
+            "SELECT EXISTS (SELECT 1 FROM target) AS found, EXISTS (SELECT 1 FROM deleted) AS changed, " +
+            "COALESCE((SELECT favorite_count FROM updated), (SELECT favorite_count FROM target)) AS \"favoriteCount\"",
+            nativeQuery = true)
+    FavoriteToggle removeFavorite(@Param("userId") Long userId, @Param("templateId") Long templateId);
 }
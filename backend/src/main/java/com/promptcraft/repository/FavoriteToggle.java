@@ -0,0 +1,8 @@
+package com.promptcraft.repository;
+
+// Outcome of a single-statement favorite toggle
+public interface FavoriteToggle {
+    Boolean getFound();
+    Boolean getChanged();
+    Integer getFavoriteCount();
+}
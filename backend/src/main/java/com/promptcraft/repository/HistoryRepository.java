@@ -4,10 +4,16 @@ import com.promptcraft.model.History;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface HistoryRepository extends JpaRepository<History, Long> {
     Page<History> findByUserId(Long userId, Pageable pageable);
-    void deleteByUserId(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM History h WHERE h.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
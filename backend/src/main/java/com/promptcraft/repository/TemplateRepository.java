@@ -1,19 +1,30 @@
 package com.promptcraft.repository;
 
+import com.promptcraft.dto.TemplateSummary;
 import com.promptcraft.model.Template;
 import com.promptcraft.model.Template.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TemplateRepository extends JpaRepository<Template, Long> {
     
+    // Card fields plus creator email in one join; content truncated to a preview
+    String SUMMARY_SELECT = "SELECT new com.promptcraft.dto.TemplateSummary(" +
+            "t.id, t.title, SUBSTRING(t.content, 1, " + TemplateSummary.PREVIEW_LENGTH + "), t.description, " +
+            "t.category, t.forDevs, t.isPublic, t.isOfficial, t.usageCount, t.favoriteCount, " +
+            "u.id, u.email, t.createdAt, t.updatedAt) " +
+            "FROM Template t LEFT JOIN t.user u ";
+    
     // Find all public templates
     Page<Template> findByIsPublicTrue(Pageable pageable);
     
@@ -26,11 +37,65 @@ public interface TemplateRepository extends JpaRepository<Template, Long> {
     // Find dev templates
     Page<Template> findByForDevsAndIsPublicTrue(Boolean forDevs, Pageable pageable);
     
-    // Search templates
-    @Query("SELECT t FROM Template t WHERE t.isPublic = true AND " +
-           "(LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.content) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Template> searchPublicTemplates(@Param("searchTerm") String searchTerm, Pageable pageable);
+    // Summary projections for list views
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublic = true",
+           countQuery = "SELECT COUNT(t) FROM Template t WHERE t.isPublic = true")
+    Page<TemplateSummary> findPublicSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublic = true AND t.category = :category",
+           countQuery = "SELECT COUNT(t) FROM Template t WHERE t.isPublic = true AND t.category = :category")
+    Page<TemplateSummary> findPublicSummariesByCategory(@Param("category") Category category, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublic = true AND t.forDevs = :forDevs",
+           countQuery = "SELECT COUNT(t) FROM Template t WHERE t.isPublic = true AND t.forDevs = :forDevs")
+    Page<TemplateSummary> findPublicSummariesByForDevs(@Param("forDevs") Boolean forDevs, Pageable pageable);
+    
+    // Hydrate search hits
+    @Query(SUMMARY_SELECT + "WHERE t.id IN :ids")
+    List<TemplateSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pagination: seek past (createdAt, id) using the composite indexes from V4.
+    // The leading createdAt <= bound is the index range; the OR only breaks timestamp ties.
+    @Query(SUMMARY_SELECT + "WHERE t.isPublic = true " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TemplateSummary> findPublicBefore(@Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.isPublic = true AND t.category = :category " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TemplateSummary> findPublicByCategoryBefore(@Param("category") Category category,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.isPublic = true AND t.forDevs = :forDevs " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TemplateSummary> findPublicByForDevsBefore(@Param("forDevs") Boolean forDevs,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+    
+    // Ranked full-text search with optional category/forDevs filters
+    @Query(value = "SELECT t.id AS id, ts_rank(t.search_vector, q) AS rank, " +
+                   "ts_headline('english', t.content, q, 'MaxFragments=1, MinWords=10, MaxWords=30') AS snippet " +
+                   "FROM templates t, to_tsquery('english', :tsQuery) q " +
+                   "WHERE t.is_public = true AND t.search_vector @@ q " +
+                   "AND (CAST(:category AS VARCHAR) IS NULL OR t.category = CAST(:category AS VARCHAR)) " +
+                   "AND (CAST(:forDevs AS BOOLEAN) IS NULL OR t.for_devs = CAST(:forDevs AS BOOLEAN)) " +
+                   "ORDER BY rank DESC, t.id DESC",
+           countQuery = "SELECT COUNT(*) FROM templates t, to_tsquery('english', :tsQuery) q " +
+                        "WHERE t.is_public = true AND t.search_vector @@ q " +
+                        "AND (CAST(:category AS VARCHAR) IS NULL OR t.category = CAST(:category AS VARCHAR)) " +
+                        "AND (CAST(:forDevs AS BOOLEAN) IS NULL OR t.for_devs = CAST(:forDevs AS BOOLEAN))",
+           nativeQuery = true)
+    Page<TemplateSearchHit> searchPublicTemplates(@Param("tsQuery") String tsQuery,
+                                                  @Param("category") String category,
+                                                  @Param("forDevs") Boolean forDevs,
+                                                  Pageable pageable);
     
     // Find official templates
     Page<Template> findByIsOfficialTrueAndIsPublicTrue(Pageable pageable);
@@ -0,0 +1,8 @@
+package com.promptcraft.repository;
+
+// Projection for a ranked full-text search match
+public interface TemplateSearchHit {
+    Long getId();
+    Float getRank();
+    String getSnippet();
+}
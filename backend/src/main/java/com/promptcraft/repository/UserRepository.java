@@ -2,12 +2,22 @@ package com.promptcraft.repository;
 
 import com.promptcraft.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByEmail(String email);
+    
+    // Deactivated users, plus users deleted since the given time (recorded by a trigger on users)
+    @Query(value = "SELECT id FROM users WHERE active = false "
+            + "UNION SELECT user_id FROM deleted_users WHERE deleted_at > :deletedSince",
+            nativeQuery = true)
+    List<Long> findRevokedUserIds(@Param("deletedSince") LocalDateTime deletedSince);
 }
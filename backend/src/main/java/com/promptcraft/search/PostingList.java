@@ -0,0 +1,47 @@
+package com.promptcraft.search;
+
+import java.util.Arrays;
+
+// Append-only list of (doc ordinal, weighted term frequency) pairs kept in primitive arrays
+final class PostingList {
+    
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int size;
+    
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int doc(int i) {
+        return docs[i];
+    }
+    
+    int freq(int i) {
+        return freqs[i];
+    }
+    
+    // Drops postings whose doc maps to -1 and renumbers the rest; ordinals stay ascending
+    void remap(int[] newOrdinals) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int doc = newOrdinals[docs[i]];
+            if (doc >= 0) {
+                docs[kept] = doc;
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+}
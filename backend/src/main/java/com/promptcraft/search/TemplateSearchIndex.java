@@ -0,0 +1,374 @@
+package com.promptcraft.search;
+
+import com.promptcraft.model.Template;
+import com.promptcraft.model.Template.Category;
+import com.promptcraft.repository.TemplateRepository;
+import com.promptcraft.repository.TemplateSearchHit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over template title, description and content, enabled with
+ * {@code template.search.backend=memory}. Documents are dense int ordinals; postings and
+ * per-document metadata live in primitive arrays. Queries are ranked with BM25 and every
+ * query term matches as a prefix, mirroring the Postgres backend's {@code term:*} queries.
+ */
+@Component
+@ConditionalOnProperty(name = "template.search.backend", havingValue = "memory")
+public class TemplateSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateSearchIndex.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int SNIPPET_WORDS = 30;
+
+    private static final byte LIVE = 1;
+    private static final byte PUBLIC = 2;
+    private static final byte FOR_DEVS = 4;
+
+    @Autowired
+    private TemplateRepository templateRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+
+    private long[] templateIds = new long[64];
+    private int[] lengths = new int[64];
+    private byte[] categories = new byte[64];
+    private byte[] flags = new byte[64];
+    private long[] versions = new long[64];
+    private int docCount;
+    private int liveCount;
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        Pageable pageable = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+        Page<Template> batch;
+        do {
+            batch = templateRepository.findAll(pageable);
+            batch.forEach(this::index);
+            pageable = batch.nextPageable();
+        } while (batch.hasNext());
+
+        ready = true;
+        log.info("Indexed {} templates ({} terms) in {} ms",
+                liveCount, postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Template template) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTokens(frequencies, template.getTitle(), TITLE_WEIGHT)
+                + addTokens(frequencies, template.getDescription(), DESCRIPTION_WEIGHT)
+                + addTokens(frequencies, template.getContent(), CONTENT_WEIGHT);
+
+        byte docFlags = LIVE;
+        if (Boolean.TRUE.equals(template.getIsPublic())) {
+            docFlags |= PUBLIC;
+        }
+        if (Boolean.TRUE.equals(template.getForDevs())) {
+            docFlags |= FOR_DEVS;
+        }
+
+        long version = version(template);
+
+        lock.writeLock().lock();
+        try {
+            // load() reads rows in batches; an edit indexed after its batch was read must not be overwritten
+            Integer current = ordinalsById.get(template.getId());
+            if (current != null && versions[current] > version) {
+                return;
+            }
+            removeLocked(template.getId());
+            int doc = allocateLocked();
+            templateIds[doc] = template.getId();
+            lengths[doc] = length;
+            categories[doc] = (byte) (template.getCategory() != null ? template.getCategory().ordinal() : -1);
+            flags[doc] = docFlags;
+            versions[doc] = version;
+            ordinalsById.put(template.getId(), doc);
+            liveCount++;
+            totalLength += length;
+            frequencies.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new PostingList()).add(doc, freq));
+            // An update leaves the old version behind as a deleted doc, so edits alone can fill the index
+            compactIfSparseLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long templateId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(templateId);
+            compactIfSparseLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<TemplateSearchHit> search(String query, Category category, Boolean forDevs, Pageable pageable) {
+        List<String> terms = Tokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            float[] scores = new float[docCount];
+            int[] matchedTerms = new int[docCount];
+            float avgLength = liveCount == 0 ? 1f : (float) totalLength / liveCount;
+
+            for (int t = 0; t < terms.size(); t++) {
+                String term = terms.get(t);
+                SortedMap<String, PostingList> expansions = postings.subMap(term, term + Character.MAX_VALUE);
+                for (PostingList list : expansions.values()) {
+                    int df = documentFrequency(list);
+                    float idf = (float) Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+                    for (int i = 0; i < list.size(); i++) {
+                        int doc = list.doc(i);
+                        if (!accepts(doc, category, forDevs)) {
+                            continue;
+                        }
+                        float tf = list.freq(i);
+                        scores[doc] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[doc] / avgLength));
+                        // A doc can match several expansions of one term; count the term once
+                        if (matchedTerms[doc] == t) {
+                            matchedTerms[doc] = t + 1;
+                        }
+                    }
+                }
+            }
+
+            return topHits(scores, matchedTerms, terms.size(), pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String highlight(String content, String query) {
+        return Tokenizer.highlight(content, Tokenizer.tokenize(query), SNIPPET_WORDS);
+    }
+
+    // Live documents only: postings of deleted docs stay until the next compaction
+    private int documentFrequency(PostingList list) {
+        if (liveCount == docCount) {
+            return list.size();
+        }
+        int df = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if ((flags[list.doc(i)] & LIVE) != 0) {
+                df++;
+            }
+        }
+        return df;
+    }
+
+    private boolean accepts(int doc, Category category, Boolean forDevs) {
+        byte docFlags = flags[doc];
+        if ((docFlags & (LIVE | PUBLIC)) != (LIVE | PUBLIC)) {
+            return false;
+        }
+        if (category != null && categories[doc] != category.ordinal()) {
+            return false;
+        }
+        return forDevs == null || ((docFlags & FOR_DEVS) != 0) == forDevs;
+    }
+
+    // Keeps the best offset+size matches in a primitive min-heap, then slices out the requested page
+    private Page<TemplateSearchHit> topHits(float[] scores, int[] matchedTerms, int termCount, Pageable pageable) {
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        int[] heap = new int[Math.max(limit, 1)];
+        int heapSize = 0;
+        int total = 0;
+
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (matchedTerms[doc] != termCount) {
+                continue;
+            }
+            total++;
+            if (heapSize < limit) {
+                heap[heapSize] = doc;
+                siftUp(heap, heapSize++, scores);
+            } else if (limit > 0 && ranksAbove(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+
+        List<TemplateSearchHit> hits = new ArrayList<>();
+        for (int i = (int) Math.min(pageable.getOffset(), ranked.length); i < ranked.length; i++) {
+            hits.add(new IndexHit(templateIds[ranked[i]], scores[ranked[i]]));
+        }
+        return new PageImpl<>(hits, pageable, total);
+    }
+
+    // Higher score first; ties go to the newer (higher) ordinal, like ORDER BY rank DESC, id DESC
+    private static boolean ranksAbove(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!ranksAbove(heap[parent], heap[i], scores)) {
+                break;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && ranksAbove(heap[smallest], heap[left], scores)) {
+                smallest = left;
+            }
+            if (right < size && ranksAbove(heap[smallest], heap[right], scores)) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    // updated_at in microseconds, the precision Postgres stores, so an entity and its reloaded row compare equal
+    private static long version(Template template) {
+        LocalDateTime updatedAt = template.getUpdatedAt();
+        if (updatedAt == null) {
+            return Long.MIN_VALUE;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    private static int addTokens(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void removeLocked(Long templateId) {
+        Integer doc = ordinalsById.remove(templateId);
+        if (doc != null) {
+            flags[doc] &= ~LIVE;
+            liveCount--;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    private int allocateLocked() {
+        if (docCount == templateIds.length) {
+            int capacity = docCount * 2;
+            templateIds = Arrays.copyOf(templateIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        return docCount++;
+    }
+
+    private void compactIfSparseLocked() {
+        if (docCount > LOAD_BATCH_SIZE && liveCount < docCount / 2) {
+            compactLocked();
+        }
+    }
+
+    // Drops deleted documents once they outnumber live ones, renumbering ordinals densely
+    private void compactLocked() {
+        int[] newOrdinals = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if ((flags[doc] & LIVE) != 0) {
+                templateIds[next] = templateIds[doc];
+                lengths[next] = lengths[doc];
+                categories[next] = categories[doc];
+                flags[next] = flags[doc];
+                versions[next] = versions[doc];
+                ordinalsById.put(templateIds[next], next);
+                newOrdinals[doc] = next++;
+            } else {
+                newOrdinals[doc] = -1;
+            }
+        }
+        docCount = next;
+        postings.values().removeIf(list -> {
+            list.remap(newOrdinals);
+            return list.size() == 0;
+        });
+    }
+
+    private record IndexHit(Long id, Float rank) implements TemplateSearchHit {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Float getRank() {
+            return rank;
+        }
+
+        @Override
+        public String getSnippet() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.promptcraft.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Splits text into lowercase letter/digit runs, shared by indexing, querying and highlighting
+public final class Tokenizer {
+    
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    
+    private Tokenizer() {
+    }
+    
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return tokens;
+    }
+    
+    /**
+     * Builds a ts_headline-style snippet: a window of words around the first word that
+     * starts with one of the query terms, with matching words wrapped in &lt;b&gt; tags.
+     */
+    public static String highlight(String text, List<String> terms, int maxWords) {
+        if (text == null || terms.isEmpty()) {
+            return null;
+        }
+        List<int[]> words = new ArrayList<>();
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            words.add(new int[]{matcher.start(), matcher.end()});
+        }
+        if (words.isEmpty()) {
+            return null;
+        }
+        
+        int first = 0;
+        for (int i = 0; i < words.size(); i++) {
+            if (matches(text, words.get(i), terms)) {
+                first = i;
+                break;
+            }
+        }
+        int from = Math.max(0, first - 5);
+        int to = Math.min(words.size(), from + maxWords);
+        
+        StringBuilder snippet = new StringBuilder();
+        int cursor = words.get(from)[0];
+        for (int i = from; i < to; i++) {
+            int[] word = words.get(i);
+            snippet.append(text, cursor, word[0]);
+            if (matches(text, word, terms)) {
+                snippet.append("<b>").append(text, word[0], word[1]).append("</b>");
+            } else {
+                snippet.append(text, word[0], word[1]);
+            }
+            cursor = word[1];
+        }
+        return snippet.toString();
+    }
+    
+    private static boolean matches(String text, int[] word, List<String> terms) {
+        String token = text.substring(word[0], word[1]).toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (token.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
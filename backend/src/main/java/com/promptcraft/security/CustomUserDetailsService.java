@@ -19,11 +19,17 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         
+        // Login always reads the password hash fresh; refresh the principal cache while we have the row
+        principalCache.put(user);
+        
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
                 user.getPasswordHash(),
@@ -35,6 +41,11 @@ public class CustomUserDetailsService implements UserDetailsService {
         );
     }
     
+    public UserPrincipal loadPrincipalByEmail(String email) throws UsernameNotFoundException {
+        return principalCache.get(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
+    
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
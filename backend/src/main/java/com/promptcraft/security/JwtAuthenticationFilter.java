@@ -1,20 +1,26 @@
 package com.promptcraft.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,7 +29,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
+    
+    // Present only when jwt.stateless.enabled=true
+    @Autowired(required = false)
+    private TokenRevocationList revocationList;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+    
+    private Timer validTokens;
+    private Timer invalidTokens;
+    private Counter userLookups;
+    
+    @PostConstruct
+    public void initMetrics() {
+        validTokens = validationTimer("valid");
+        invalidTokens = validationTimer("invalid");
+        // Lookups go through UserPrincipalCache; its hit ratio is under cache.gets{cache="users.principal"}
+        userLookups = Counter.builder("jwt.user.lookups")
+                .description("Authenticated requests that looked their user up instead of trusting token claims")
+                .register(meterRegistry);
+    }
+    
+    private Timer validationTimer(String result) {
+        return Timer.builder("jwt.validation")
+                .description("Time to verify a bearer token's signature and expiry")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,21 +68,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            Optional<ParsedToken> token = StringUtils.hasText(jwt) ? validate(jwt) : Optional.empty();
+            UserDetails userDetails = token.map(this::resolveUser).orElse(null);
             
-            if (StringUtils.hasText(jwt) && !tokenProvider.isTokenExpired(jwt)) {
-                String username = tokenProvider.extractUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (tokenProvider.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -54,6 +88,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private Optional<ParsedToken> validate(String jwt) {
+        long start = System.nanoTime();
+        Optional<ParsedToken> token = tokenProvider.validate(jwt);
+        (token.isPresent() ? validTokens : invalidTokens).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+    
+    private UserDetails resolveUser(ParsedToken token) {
+        if (statelessEnabled) {
+            // Trust the signed claims; only the in-memory deny-list is consulted
+            UserPrincipal principal = UserPrincipal.fromClaims(token.claims());
+            if (principal != null) {
+                return principal.isEnabled() && !revocationList.isRevoked(principal.id()) ? principal : null;
+            }
+        }
+        userLookups.increment();
+        return userDetailsService.loadPrincipalByEmail(token.subject());
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
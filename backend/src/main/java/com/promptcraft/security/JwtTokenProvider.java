@@ -1,22 +1,39 @@
 package com.promptcraft.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Value("${jwt.secret}")
     private String secret;
     
@@ -26,8 +43,50 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.enabled:true}")
+    private boolean cacheEnabled;
+    
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+    
+    // Built once: the HMAC key and the parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    // Verified tokens keyed by SHA-256 of the raw token, each held until the token expires
+    private Cache<String, ParsedToken> verifiedTokens;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        
+        if (cacheEnabled) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfter(new Expiry<String, ParsedToken>() {
+                        @Override
+                        public long expireAfterCreate(String key, ParsedToken token, long currentTime) {
+                            long millis = Math.max(0, token.expiration().getTime() - System.currentTimeMillis());
+                            return TimeUnit.MILLISECONDS.toNanos(millis);
+                        }
+                        
+                        @Override
+                        public long expireAfterUpdate(String key, ParsedToken token, long currentTime,
+                                                      long currentDuration) {
+                            return currentDuration;
+                        }
+                        
+                        @Override
+                        public long expireAfterRead(String key, ParsedToken token, long currentTime,
+                                                    long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        }
     }
     
     public String generateToken(UserDetails userDetails) {
@@ -35,6 +94,16 @@ public class JwtTokenProvider {
         return createToken(claims, userDetails.getUsername(), expiration);
     }
     
+    // Access token that also carries the principal claims used by stateless authentication
+    public String generateToken(UserPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(UserPrincipal.CLAIM_USER_ID, principal.id());
+        claims.put(UserPrincipal.CLAIM_ROLE, principal.role().name());
+        claims.put(UserPrincipal.CLAIM_TIER, principal.tier().name());
+        claims.put(UserPrincipal.CLAIM_ACTIVE, principal.active());
+        return createToken(claims, principal.email(), expiration);
+    }
+    
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userDetails.getUsername(), refreshExpiration);
@@ -49,10 +118,37 @@ public class JwtTokenProvider {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
+    /**
+     * Verifies the token's signature and expiry in a single parse. Returns empty for
+     * malformed, forged or expired tokens.
+     */
+    public Optional<ParsedToken> validate(String token) {
+        String key = cacheEnabled ? hash(token) : null;
+        if (key != null) {
+            ParsedToken cached = verifiedTokens.getIfPresent(key);
+            if (cached != null) {
+                return cached.isExpired() ? Optional.empty() : Optional.of(cached);
+            }
+        }
+        
+        ParsedToken parsed;
+        try {
+            Claims claims = extractAllClaims(token);
+            parsed = new ParsedToken(claims.getSubject(), claims.getExpiration(), claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        
+        if (key != null) {
+            verifiedTokens.put(key, parsed);
+        }
+        return Optional.of(parsed);
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -67,11 +163,7 @@ public class JwtTokenProvider {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
     
     public Boolean isTokenExpired(String token) {
@@ -82,4 +174,13 @@ public class JwtTokenProvider {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
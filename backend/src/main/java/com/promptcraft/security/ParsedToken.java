@@ -0,0 +1,13 @@
+package com.promptcraft.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+// A signature-verified JWT, parsed once per request (or once per token when cached)
+public record ParsedToken(String subject, Date expiration, Claims claims) {
+    
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
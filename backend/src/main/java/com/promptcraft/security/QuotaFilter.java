@@ -0,0 +1,90 @@
+package com.promptcraft.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcraft.dto.ApiResponse;
+import com.promptcraft.service.QuotaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Meters POST requests to {@code quota.metered-paths} against the caller's subscription tier.
+ * Runs after {@link JwtAuthenticationFilter}; anonymous requests pass through to be rejected
+ * by authorization. Every metered response carries the remaining quota in headers. The unit
+ * charged here covers one item of a batch analysis; the controller charges the rest per item.
+ */
+@Component
+public class QuotaFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private QuotaService quotaService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${quota.metered-paths:/api/analyze/**,/api/optimize/**}")
+    private List<String> meteredPaths;
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return meteredPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<UserPrincipal> principal = UserPrincipal.current();
+        if (principal.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        QuotaService.Decision decision = quotaService.acquire(principal.get().id(), principal.get().tier());
+        if (decision.dailyLimit() >= 0) {
+            response.setHeader("X-Quota-Daily-Limit", String.valueOf(decision.dailyLimit()));
+            response.setHeader("X-Quota-Daily-Remaining", String.valueOf(decision.dailyRemaining()));
+        }
+        if (decision.monthlyLimit() >= 0) {
+            response.setHeader("X-Quota-Monthly-Limit", String.valueOf(decision.monthlyLimit()));
+            response.setHeader("X-Quota-Monthly-Remaining", String.valueOf(decision.monthlyRemaining()));
+        }
+        
+        if (!decision.allowed()) {
+            boolean monthly = decision.monthlyLimit() >= 0 && decision.monthlyRemaining() == 0;
+            LocalDate today = LocalDate.now();
+            LocalDate reset = monthly ? today.withDayOfMonth(1).plusMonths(1) : today.plusDays(1);
+            long retryAfter = Duration.between(LocalDateTime.now(), reset.atStartOfDay()).toSeconds() + 1;
+            
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ApiResponse(false,
+                    (monthly ? "Monthly" : "Daily") + " quota exceeded for your subscription plan"));
+            return;
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,68 @@
+package com.promptcraft.security;
+
+import com.promptcraft.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deny-list for stateless tokens: the IDs of deactivated users and of users deleted within the
+ * access token lifetime, held as a sorted long[] and reloaded every
+ * {@code jwt.stateless.deny-list-refresh-ms}. Tokens of a listed user are
+ * rejected even though their signature and claims are still valid.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.stateless.enabled", havingValue = "true")
+public class TokenRevocationList {
+    
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // Tokens of users deleted longer ago than this have expired, so their IDs can leave the list
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+    
+    private final AtomicReference<long[]> revokedUserIds = new AtomicReference<>(new long[0]);
+    
+    @Scheduled(fixedDelayString = "${jwt.stateless.deny-list-refresh-ms:30000}")
+    public void refresh() {
+        try {
+            LocalDateTime deletedSince = LocalDateTime.now().minus(Duration.ofMillis(tokenLifetimeMs));
+            List<Long> ids = userRepository.findRevokedUserIds(deletedSince);
+            revokedUserIds.set(ids.stream().mapToLong(Long::longValue).sorted().toArray());
+        } catch (DataAccessException e) {
+            // Keep serving the previous list until the database is reachable again
+            log.warn("Could not refresh token deny-list", e);
+        }
+    }
+    
+    public boolean isRevoked(long userId) {
+        return Arrays.binarySearch(revokedUserIds.get(), userId) >= 0;
+    }
+    
+    // Takes effect on this node immediately; other nodes pick it up on their next refresh
+    public void revoke(long userId) {
+        revokedUserIds.updateAndGet(current -> {
+            if (Arrays.binarySearch(current, userId) >= 0) {
+                return current;
+            }
+            long[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = userId;
+            Arrays.sort(updated);
+            return updated;
+        });
+    }
+}
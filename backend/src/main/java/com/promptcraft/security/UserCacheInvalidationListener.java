@@ -0,0 +1,58 @@
+package com.promptcraft.security;
+
+import com.promptcraft.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User} that drops the cached principal once a change commits, and
+ * revokes stateless tokens of users who were deactivated or deleted. Collaborators are looked up lazily
+ * because the listener is created while the EntityManagerFactory is still being built.
+ */
+public class UserCacheInvalidationListener {
+    
+    @Autowired
+    private ObjectProvider<UserPrincipalCache> principalCache;
+    
+    @Autowired
+    private ObjectProvider<TokenRevocationList> revocationList;
+    
+    @PostUpdate
+    public void onUpdate(User user) {
+        invalidate(user, !Boolean.TRUE.equals(user.getActive()));
+    }
+    
+    // A removed entity still reads active = true, so revoke regardless
+    @PostRemove
+    public void onRemove(User user) {
+        invalidate(user, true);
+    }
+    
+    private void invalidate(User user, boolean revoke) {
+        String email = user.getEmail();
+        Long userId = user.getId();
+        afterCommit(() -> {
+            principalCache.ifAvailable(cache -> cache.invalidate(userId, email));
+            if (revoke) {
+                revocationList.ifAvailable(list -> list.revoke(userId));
+            }
+        });
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.promptcraft.security;
+
+import com.promptcraft.model.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Compact, immutable view of an authenticated user. Carries no password hash and none of the
+ * entity's lazy collections, so it can be rebuilt from token claims or cached safely.
+ */
+public record UserPrincipal(Long id, String email, User.Role role, User.SubscriptionTier tier, boolean active)
+        implements UserDetails {
+    
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TIER = "tier";
+    static final String CLAIM_ACTIVE = "active";
+    
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getSubscriptionTier(),
+                Boolean.TRUE.equals(user.getActive()));
+    }
+    
+    // Returns null for tokens issued without the principal claims
+    static UserPrincipal fromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String tier = claims.get(CLAIM_TIER, String.class);
+        Boolean active = claims.get(CLAIM_ACTIVE, Boolean.class);
+        if (userId == null || role == null || tier == null || active == null) {
+            return null;
+        }
+        return new UserPrincipal(userId.longValue(), claims.getSubject(), User.Role.valueOf(role),
+                User.SubscriptionTier.valueOf(tier), active);
+    }
+    
+    // The principal of the current request, when it was authenticated with a UserPrincipal
+    public static Optional<UserPrincipal> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    @Override
+    public String getPassword() {
+        return null;
+    }
+    
+    @Override
+    public String getUsername() {
+        return email;
+    }
+    
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+    
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
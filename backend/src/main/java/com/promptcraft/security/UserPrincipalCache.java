@@ -0,0 +1,81 @@
+package com.promptcraft.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promptcraft.model.User;
+import com.promptcraft.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, expiring cache of {@link UserPrincipal}s keyed by email, so the per-request user
+ * lookups in the JWT filter and the services do not each go to the database. Entries are
+ * invalidated explicitly when a user row changes and expire after {@code user.cache.ttl}.
+ * Misses are loaded outside the cache's per-key lock, so the query never pins a virtual thread.
+ */
+@Component
+public class UserPrincipalCache {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${user.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${user.cache.ttl:5m}")
+    private Duration ttl;
+    
+    private Cache<String, UserPrincipal> principals;
+    
+    // Bumped before every invalidation; a load that overlapped one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "users.principal");
+    }
+    
+    public Optional<UserPrincipal> get(String email) {
+        UserPrincipal cached = principals.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long seen = generation.get();
+        Optional<UserPrincipal> loaded = userRepository.findByEmail(email).map(UserPrincipal::from);
+        if (loaded.isEmpty()) {
+            // Unknown emails are not cached, so a later signup is visible immediately
+            return loaded;
+        }
+        UserPrincipal winner = principals.asMap().compute(email,
+                (key, existing) -> existing != null ? existing : generation.get() == seen ? loaded.get() : null);
+        return Optional.of(winner != null ? winner : loaded.get());
+    }
+    
+    public void put(User user) {
+        principals.put(user.getEmail(), UserPrincipal.from(user));
+    }
+    
+    // Also drops the user's entry under any earlier email, since an email change only shows the new one
+    public void invalidate(Long userId, String email) {
+        generation.incrementAndGet();
+        principals.invalidate(email);
+        principals.asMap().values().removeIf(principal -> Objects.equals(principal.id(), userId));
+    }
+}
@@ -6,6 +6,8 @@ import com.promptcraft.dto.JwtResponse;
 import com.promptcraft.model.User;
 import com.promptcraft.repository.UserRepository;
 import com.promptcraft.security.JwtTokenProvider;
+import com.promptcraft.security.UserPrincipal;
+import com.promptcraft.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -30,6 +32,9 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
     @Transactional
     public JwtResponse signup(SignupRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -53,7 +58,7 @@ public class AuthService {
                 .authorities("ROLE_" + user.getRole().name())
                 .build();
         
-        String accessToken = tokenProvider.generateToken(userDetails);
+        String accessToken = tokenProvider.generateToken(UserPrincipal.from(user));
         String refreshToken = tokenProvider.generateRefreshToken(userDetails);
         
         return new JwtResponse(
@@ -75,19 +80,20 @@ public class AuthService {
         );
         
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userRepository.findByEmail(request.getEmail())
+        // Primed by CustomUserDetailsService during authentication, so no second query
+        UserPrincipal principal = principalCache.get(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        String accessToken = tokenProvider.generateToken(userDetails);
+        String accessToken = tokenProvider.generateToken(principal);
         String refreshToken = tokenProvider.generateRefreshToken(userDetails);
         
         return new JwtResponse(
                 accessToken,
                 refreshToken,
-                user.getId(),
-                user.getEmail(),
-                user.getRole().name(),
-                user.getSubscriptionTier().name()
+                principal.id(),
+                principal.email(),
+                principal.role().name(),
+                principal.tier().name()
         );
     }
 }
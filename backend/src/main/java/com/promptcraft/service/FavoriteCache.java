@@ -0,0 +1,74 @@
+package com.promptcraft.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promptcraft.repository.FavoriteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Favorited template IDs per user, loaded on first access and kept for the most recently
+ * active {@code favorites.cache.max-users} users. Favorite toggles update the cached set after
+ * their transaction commits; users not in the cache are simply loaded fresh next time.
+ * Loads run outside the cache's per-key lock, since a query under that monitor would pin a
+ * virtual thread to its carrier.
+ */
+@Component
+public class FavoriteCache {
+    
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${favorites.cache.max-users:10000}")
+    private long maxUsers;
+    
+    @Value("${favorites.cache.ttl:30m}")
+    private Duration ttl;
+    
+    private Cache<Long, FavoriteIdSet> favorites;
+    
+    // Bumped before every update; a load that overlapped one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        favorites = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, favorites, "favorites.users");
+    }
+    
+    FavoriteIdSet get(Long userId) {
+        FavoriteIdSet cached = favorites.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        FavoriteIdSet loaded = FavoriteIdSet.of(favoriteRepository.findTemplateIdsByUserId(userId));
+        FavoriteIdSet winner = favorites.asMap().compute(userId,
+                (id, existing) -> existing != null ? existing : generation.get() == seen ? loaded : null);
+        return winner != null ? winner : loaded;
+    }
+    
+    void added(Long userId, Long templateId) {
+        generation.incrementAndGet();
+        favorites.asMap().computeIfPresent(userId, (id, set) -> set.with(templateId));
+    }
+    
+    void removed(Long userId, Long templateId) {
+        generation.incrementAndGet();
+        favorites.asMap().computeIfPresent(userId, (id, set) -> set.without(templateId));
+    }
+}
@@ -0,0 +1,108 @@
+package com.promptcraft.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable open-addressing set of template IDs. Lookups are a hash and a short probe over a
+ * {@code long[]} with no boxing; updates copy the table, which is cheap at per-user sizes and
+ * lets readers share an instance without locking. IDs are positive, so 0 marks an empty slot.
+ */
+final class FavoriteIdSet {
+    
+    static final FavoriteIdSet EMPTY = new FavoriteIdSet(new long[4], 0);
+    
+    private final long[] slots;
+    private final int size;
+    
+    private FavoriteIdSet(long[] slots, int size) {
+        this.slots = slots;
+        this.size = size;
+    }
+    
+    static FavoriteIdSet of(Collection<Long> ids) {
+        long[] slots = new long[capacityFor(ids.size())];
+        int size = 0;
+        for (Long id : ids) {
+            if (insert(slots, id)) {
+                size++;
+            }
+        }
+        return new FavoriteIdSet(slots, size);
+    }
+    
+    boolean contains(long id) {
+        int mask = slots.length - 1;
+        for (int i = mix(id) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    FavoriteIdSet with(long id) {
+        if (contains(id)) {
+            return this;
+        }
+        long[] copy = size + 1 > slots.length / 2 ? rehash(capacityFor(size + 1)) : slots.clone();
+        insert(copy, id);
+        return new FavoriteIdSet(copy, size + 1);
+    }
+    
+    FavoriteIdSet without(long id) {
+        if (!contains(id)) {
+            return this;
+        }
+        // Rebuilding keeps probe chains intact without tombstones
+        long[] copy = new long[capacityFor(size - 1)];
+        for (long value : slots) {
+            if (value != 0 && value != id) {
+                insert(copy, value);
+            }
+        }
+        return new FavoriteIdSet(copy, size - 1);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    private long[] rehash(int capacity) {
+        long[] copy = new long[capacity];
+        for (long value : slots) {
+            if (value != 0) {
+                insert(copy, value);
+            }
+        }
+        return copy;
+    }
+    
+    private static boolean insert(long[] slots, long id) {
+        int mask = slots.length - 1;
+        int i = mix(id) & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == id) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = id;
+        return true;
+    }
+    
+    // Load factor of at most 1/2
+    private static int capacityFor(int size) {
+        return Math.max(4, Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1);
+    }
+    
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.stream(slots).filter(value -> value != 0).sorted().toArray());
+    }
+}
@@ -0,0 +1,275 @@
+package com.promptcraft.service;
+
+import com.promptcraft.model.User.SubscriptionTier;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of {@code history} (see V6__Partition_History.sql).
+ * Partitions are created {@code history.partitions.premake-months} ahead. Retention follows the
+ * {@code subscription.plans.<tier>.history-retention-months} settings: months older than the
+ * longest retention are detached, optionally exported as gzipped CSV to
+ * {@code history.archive.dir}, and dropped whole; older rows of tiers with a shorter
+ * retention are then deleted from the partitions that remain.
+ * <p>
+ * Nothing here runs in one long transaction: each partition is created or detached in its
+ * own short transaction (DETACH holds an ACCESS EXCLUSIVE lock on {@code history} until
+ * commit), the detached table is exported and dropped afterwards, and tier deletes run in
+ * batches of {@code history.retention.delete-batch-size} rows, each committed on its own.
+ */
+@Component
+public class HistoryPartitionManager {
+    
+    private static final Logger log = LoggerFactory.getLogger(HistoryPartitionManager.class);
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile("history_y(\\d{4})m(\\d{2})");
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'history_y'yyyy'm'MM");
+    
+    // Keeps two instances from reshaping partitions at the same time
+    private static final long LOCK_KEY = 0x6869_7374_6f72_7931L;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Value("${history.partitions.premake-months:3}")
+    private int premakeMonths;
+    
+    @Value("${history.archive.dir:}")
+    private String archiveDir;
+    
+    @Value("${history.retention.delete-batch-size:5000}")
+    private int deleteBatchSize;
+    
+    @Value("${history.retention.lock-timeout:5s}")
+    private String lockTimeout;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${history.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        // Session-level lock on a connection of its own, held across the short transactions below
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection)) {
+                log.debug("History partition maintenance already running elsewhere");
+                return;
+            }
+            try {
+                YearMonth current = YearMonth.now();
+                for (int i = 0; i <= premakeMonths; i++) {
+                    ensurePartition(current.plusMonths(i));
+                }
+                applyRetention(current);
+            } finally {
+                unlock(lockConnection);
+            }
+        } catch (SQLException e) {
+            log.warn("History partition maintenance skipped: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // Also runs on ApplicationReadyEvent, where an escaping exception would stop startup
+            log.warn("History partition maintenance failed, will retry next run: {}", e.getMessage());
+        }
+    }
+    
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+    
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+        }
+    }
+    
+    private void ensurePartition(YearMonth month) {
+        String name = PARTITION_FORMAT.format(month.atDay(1));
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        
+        // Rows for this month may already sit in the default partition; move them before attaching
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM history_default WHERE created_at >= ?::timestamp "
+                    + "AND created_at < ?::timestamp RETURNING *) INSERT INTO " + name + " SELECT * FROM moved", from, to);
+            jdbcTemplate.execute("ALTER TABLE history ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        });
+        log.info("Created history partition {}", name);
+    }
+    
+    private void applyRetention(YearMonth current) {
+        int longest = 0;
+        for (SubscriptionTier tier : SubscriptionTier.values()) {
+            int months = retentionMonths(tier);
+            if (months < 0) {
+                longest = -1;
+                break;
+            }
+            longest = Math.max(longest, months);
+        }
+        
+        if (longest >= 0) {
+            YearMonth oldestKept = current.minusMonths(longest);
+            // Tables detached by a run that failed before dropping them are finished first
+            for (String partition : detachedPartitions()) {
+                if (monthOf(partition).isBefore(oldestKept)) {
+                    exportAndDrop(partition);
+                }
+            }
+            for (String partition : monthlyPartitions()) {
+                if (monthOf(partition).isBefore(oldestKept) && detach(partition)) {
+                    exportAndDrop(partition);
+                }
+            }
+        }
+        
+        for (SubscriptionTier tier : SubscriptionTier.values()) {
+            int months = retentionMonths(tier);
+            if (months >= 0) {
+                deleteOlderThan(tier, current.minusMonths(months).atDay(1));
+            }
+        }
+    }
+    
+    // Each batch commits on its own, so row locks and WAL stay bounded and writers are never held up for long
+    private void deleteOlderThan(SubscriptionTier tier, LocalDate cutoff) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM history WHERE (id, created_at) IN ("
+                            + "SELECT h.id, h.created_at FROM history h JOIN users u ON u.id = h.user_id "
+                            + "WHERE u.subscription_tier = ? AND h.created_at < ? LIMIT ?)",
+                    tier.name(), Timestamp.valueOf(cutoff.atStartOfDay()), deleteBatchSize);
+            total += deleted;
+        } while (deleted >= deleteBatchSize);
+        if (total > 0) {
+            log.info("Deleted {} {} history entries older than {}", total, tier, cutoff);
+        }
+    }
+    
+    // Gives up rather than queueing behind long reads, since every later query on history would queue behind it
+    private boolean detach(String partition) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout + "'");
+                jdbcTemplate.execute("ALTER TABLE history DETACH PARTITION " + partition);
+            });
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not detach history partition {}, will retry next run: {}", partition, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void exportAndDrop(String partition) {
+        if (!archiveDir.isBlank()) {
+            Path file = Path.of(archiveDir, partition + ".csv.gz");
+            jdbcTemplate.execute((Connection connection) -> {
+                try {
+                    Files.createDirectories(file.getParent());
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not create " + archiveDir, e);
+                }
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                    connection.unwrap(PGConnection.class).getCopyAPI()
+                            .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not export " + partition + " to " + file, e);
+                }
+                return null;
+            });
+            log.info("Exported history partition {} to {}", partition, file);
+        }
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("Dropped history partition {}", partition);
+    }
+    
+    // Monthly tables no longer attached to history
+    private List<String> detachedPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_class c WHERE c.relkind = 'r' "
+                + "AND c.relnamespace = current_schema()::regnamespace "
+                + "AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)", String.class)
+                .stream()
+                .filter(name -> PARTITION_NAME.matcher(name).matches())
+                .sorted()
+                .toList();
+    }
+    
+    private List<String> monthlyPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'history'::regclass", String.class)
+                .stream()
+                .filter(name -> PARTITION_NAME.matcher(name).matches())
+                .sorted()
+                .toList();
+    }
+    
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a monthly history partition: " + partition);
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+    
+    // Negative means history is kept forever for that tier
+    private int retentionMonths(SubscriptionTier tier) {
+        return environment.getProperty("subscription.plans." + tier.name().toLowerCase() + ".history-retention-months",
+                Integer.class, -1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.promptcraft.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.promptcraft.dto.HistoryRequest;
+import com.promptcraft.dto.HistoryResponse;
+import com.promptcraft.model.History;
+import com.promptcraft.repository.HistoryRepository;
+import com.promptcraft.security.UserPrincipal;
+import com.promptcraft.security.UserPrincipalCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class HistoryService {
+    
+    @Autowired
+    private HistoryRepository historyRepository;
+    
+    @Autowired
+    private HistoryWriter historyWriter;
+    
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
+    /**
+     * Queues a history entry for the background writer. Returns false when the queue is full
+     * and the entry was dropped; never waits on the insert.
+     */
+    public boolean saveHistory(HistoryRequest request, String email) {
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        
+        JsonNode analysis = request.getAnalysis();
+        boolean hasAnalysis = analysis != null && !analysis.isNull();
+        Integer qualityScore = request.getQualityScore();
+        if (qualityScore == null && hasAnalysis && analysis.path("overallScore").isInt()) {
+            qualityScore = analysis.path("overallScore").intValue();
+        }
+        
+        return historyWriter.enqueue(new HistoryWriter.PendingEntry(
+                userId, request.getPrompt(), hasAnalysis ? analysis.toString() : null, qualityScore));
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<HistoryResponse> getHistory(String email, Pageable pageable) {
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        return historyRepository.findByUserId(userId, pageable).map(this::mapToResponse);
+    }
+    
+    @Transactional
+    public int clearHistory(String email) {
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        return historyRepository.deleteByUserId(userId);
+    }
+    
+    private Long resolveUserId(String email) {
+        if (email == null) {
+            return null;
+        }
+        return UserPrincipal.current()
+                .filter(principal -> principal.email().equals(email))
+                .or(() -> principalCache.get(email))
+                .map(UserPrincipal::id)
+                .orElse(null);
+    }
+    
+    private HistoryResponse mapToResponse(History history) {
+        HistoryResponse response = new HistoryResponse();
+        response.setId(history.getId());
+        response.setPrompt(history.getPrompt().text());
+        response.setAnalysis(history.getAnalysis() != null ? history.getAnalysis().text() : null);
+        response.setQualityScore(history.getQualityScore());
+        response.setCreatedAt(history.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,189 @@
+package com.promptcraft.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcraft.analysis.PromptAnalysis;
+import com.promptcraft.analysis.PromptAnalyzer;
+import com.promptcraft.model.CompressedText;
+import com.promptcraft.model.History;
+import com.promptcraft.repository.HistoryRepository;
+import com.promptcraft.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for prompt history. Requests only offer an entry to a bounded queue (and
+ * the entry is dropped if the queue is full); a single background thread drains it and
+ * inserts up to {@code history.queue.batch-size} rows per transaction as one JDBC batch. A
+ * batch that fails is split in halves and retried, down to single entries.
+ * Entries saved without an analysis are scored, and bodies compressed, here, off the request path.
+ */
+@Component
+public class HistoryWriter {
+    
+    private static final Logger log = LoggerFactory.getLogger(HistoryWriter.class);
+    
+    public record PendingEntry(Long userId, String prompt, String analysis, Integer qualityScore) {
+    }
+    
+    @Autowired
+    private HistoryRepository historyRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PromptAnalyzer promptAnalyzer;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${history.queue.capacity:10000}")
+    private int capacity;
+    
+    @Value("${history.queue.batch-size:50}")
+    private int batchSize;
+    
+    private BlockingQueue<PendingEntry> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+    
+    private Counter dropped;
+    private Timer flushTimer;
+    private Counter flushFailures;
+    
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        Gauge.builder("history.queue.depth", queue, BlockingQueue::size)
+                .description("History entries waiting to be written")
+                .register(meterRegistry);
+        dropped = Counter.builder("history.queue.dropped")
+                .description("History entries dropped because the queue was full")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("history.flush")
+                .description("Time spent writing one batch of history entries")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("history.flush.failures")
+                .description("History entries lost to failed batch writes")
+                .register(meterRegistry);
+        
+        running = true;
+        writer = new Thread(this::drainLoop, "history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    public boolean enqueue(PendingEntry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+    
+    private void drainLoop() {
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingEntry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void write(List<PendingEntry> batch) {
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                List<History> entities = new ArrayList<>(batch.size());
+                for (PendingEntry entry : batch) {
+                    entities.add(toEntity(entry));
+                }
+                historyRepository.saveAll(entities);
+            }));
+            log.debug("Wrote {} history entries", batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad entry rolls back the whole batch; split it so only that entry is lost
+                int half = batch.size() / 2;
+                write(batch.subList(0, half));
+                write(batch.subList(half, batch.size()));
+                return;
+            }
+            flushFailures.increment();
+            log.warn("Could not write history entry for user {}", batch.get(0).userId(), e);
+        }
+    }
+    
+    private History toEntity(PendingEntry entry) {
+        History history = new History();
+        history.setUser(userRepository.getReferenceById(entry.userId()));
+        history.setPrompt(CompressedText.of(entry.prompt()));
+        history.setAnalysis(CompressedText.of(entry.analysis()));
+        history.setQualityScore(entry.qualityScore());
+        
+        if (entry.analysis() == null) {
+            PromptAnalysis analysis = promptAnalyzer.analyze(entry.prompt());
+            if (analysis != null) {
+                try {
+                    history.setAnalysis(CompressedText.of(objectMapper.writeValueAsString(analysis)));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Could not serialize prompt analysis", e);
+                }
+                if (entry.qualityScore() == null) {
+                    history.setQualityScore(analysis.getOverallScore());
+                }
+            }
+        }
+        return history;
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        
+        // Write whatever is still queued before the datasource goes away
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+}
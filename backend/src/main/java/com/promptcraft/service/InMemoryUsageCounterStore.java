@@ -0,0 +1,172 @@
+package com.promptcraft.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-node {@link UsageCounterStore} backed by one {@link QuotaCounter} per user. A counter
+ * is seeded from {@code usage_stats} on first use; after that a reservation is a single CAS.
+ * Counts are checkpointed to {@code usage_stats} every {@code quota.checkpoint-interval-ms} as
+ * one batch of upserts keyed by (user_id, date).
+ */
+@Component
+@ConditionalOnProperty(name = "quota.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUsageCounterStore implements UsageCounterStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(InMemoryUsageCounterStore.class);
+    
+    private static final String LOAD_SQL = "SELECT date, daily_count, monthly_count FROM usage_stats "
+            + "WHERE user_id = ? AND date >= ? ORDER BY date DESC LIMIT 1";
+    
+    private static final String UPSERT_SQL = "INSERT INTO usage_stats (user_id, date, daily_count, monthly_count) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (user_id, date) DO UPDATE SET "
+            + "daily_count = EXCLUDED.daily_count, monthly_count = EXCLUDED.monthly_count, "
+            + "updated_at = CURRENT_TIMESTAMP";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Long, QuotaCounter> counters = new ConcurrentHashMap<>();
+    private final Queue<long[]> rolledOver = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    
+    private Timer checkpointTimer;
+    
+    @PostConstruct
+    public void init() {
+        Gauge.builder("quota.users", counters, Map::size)
+                .description("Users with an in-memory quota counter")
+                .register(meterRegistry);
+        checkpointTimer = Timer.builder("quota.checkpoint")
+                .description("Time spent writing quota counters to usage_stats")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public Reservation reserve(long userId, LocalDate date, int units, int dailyLimit, int monthlyLimit) {
+        int today = (int) date.toEpochDay();
+        QuotaCounter counter = counters.get(userId);
+        if (counter == null) {
+            // Loaded before publishing rather than in computeIfAbsent, whose bin lock would pin a virtual thread
+            QuotaCounter loaded = load(userId, today);
+            counter = counters.putIfAbsent(userId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        QuotaCounter.Attempt attempt = counter.tryAcquire(today, units, dailyLimit, monthlyLimit);
+        if (attempt.rolledOver() >= 0 && attempt.rolledOver() != counter.checkpointed) {
+            // The previous day's final counts still need their own row
+            rolledOver.add(new long[]{userId, attempt.rolledOver()});
+        }
+        return new Reservation(attempt.granted(),
+                QuotaCounter.daily(attempt.state()), QuotaCounter.monthly(attempt.state()));
+    }
+    
+    @Override
+    public void release(long userId, LocalDate date, int units) {
+        QuotaCounter counter = counters.get(userId);
+        if (counter != null) {
+            counter.release((int) date.toEpochDay(), units);
+        }
+    }
+    
+    @Override
+    public boolean shared() {
+        return false;
+    }
+    
+    // Seeds from the latest usage_stats row this month: today's row gives both counts, an earlier one the monthly count
+    private QuotaCounter load(Long userId, int today) {
+        LocalDate monthStart = LocalDate.ofEpochDay(today).withDayOfMonth(1);
+        List<Long> seeded = jdbcTemplate.query(LOAD_SQL, (rs, rowNum) -> {
+            long day = rs.getTimestamp(1).toLocalDateTime().toLocalDate().toEpochDay();
+            long daily = day == today ? rs.getInt(2) : 0;
+            return QuotaCounter.pack(today, daily, rs.getInt(3));
+        }, userId, Timestamp.valueOf(monthStart.atStartOfDay()));
+        long initial = seeded.isEmpty() ? QuotaCounter.pack(today, 0, 0) : seeded.get(0);
+        return new QuotaCounter(initial);
+    }
+    
+    @Scheduled(fixedDelayString = "${quota.checkpoint-interval-ms:10000}")
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            int today = (int) LocalDate.now().toEpochDay();
+            List<Object[]> rows = new ArrayList<>();
+            List<long[]> rolled = new ArrayList<>();
+            long[] entry;
+            while ((entry = rolledOver.poll()) != null) {
+                rolled.add(entry);
+                rows.add(row(entry[0], entry[1]));
+            }
+            List<QuotaCounter> written = new ArrayList<>();
+            List<Long> states = new ArrayList<>();
+            counters.forEach((userId, counter) -> {
+                long state = counter.state();
+                if (state != counter.checkpointed) {
+                    rows.add(row(userId, state));
+                    written.add(counter);
+                    states.add(state);
+                }
+            });
+            
+            if (!rows.isEmpty()) {
+                try {
+                    checkpointTimer.record(() -> jdbcTemplate.batchUpdate(UPSERT_SQL, rows));
+                } catch (DataAccessException e) {
+                    // Counters stay dirty and rolled-over days are requeued for the next checkpoint
+                    rolledOver.addAll(rolled);
+                    log.warn("Could not checkpoint quota counters", e);
+                    return;
+                }
+                for (int i = 0; i < written.size(); i++) {
+                    written.get(i).checkpointed = states.get(i);
+                }
+                log.debug("Checkpointed {} quota counters", rows.size());
+            }
+            
+            // Users idle since an earlier day are reloaded from usage_stats when they return
+            counters.values().removeIf(counter -> {
+                long state = counter.state();
+                return QuotaCounter.day(state) != today && state == counter.checkpointed;
+            });
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+    
+    private static Object[] row(long userId, long state) {
+        Timestamp date = Timestamp.valueOf(LocalDate.ofEpochDay(QuotaCounter.day(state)).atStartOfDay());
+        return new Object[]{userId, date, QuotaCounter.daily(state), QuotaCounter.monthly(state)};
+    }
+}
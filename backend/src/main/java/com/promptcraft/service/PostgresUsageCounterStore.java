@@ -0,0 +1,90 @@
+package com.promptcraft.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@link UsageCounterStore} shared by every node through {@code usage_stats}, enabled with
+ * {@code quota.store=postgres}. A reservation is one atomic upsert on the (user_id, date)
+ * unique index: the limit checks ride in the insert's SELECT and the ON CONFLICT update's
+ * WHERE, so concurrent nodes can never count past a limit.
+ */
+@Component
+@ConditionalOnProperty(name = "quota.store", havingValue = "postgres")
+public class PostgresUsageCounterStore implements UsageCounterStore {
+    
+    // A new row starts from the month's running total as of the latest earlier day
+    private static final String RESERVE_SQL = """
+            INSERT INTO usage_stats AS s (user_id, date, daily_count, monthly_count)
+            SELECT :userId, :date, :units, base.total + :units
+            FROM (SELECT COALESCE(MAX(monthly_count), 0) AS total FROM usage_stats
+                  WHERE user_id = :userId AND date >= :monthStart AND date < :date) base
+            WHERE (:dailyLimit < 0 OR :units <= :dailyLimit)
+              AND (:monthlyLimit < 0 OR base.total + :units <= :monthlyLimit)
+            ON CONFLICT (user_id, date) DO UPDATE SET
+                daily_count = s.daily_count + EXCLUDED.daily_count,
+                monthly_count = s.monthly_count + EXCLUDED.daily_count,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE (:dailyLimit < 0 OR s.daily_count + EXCLUDED.daily_count <= :dailyLimit)
+              AND (:monthlyLimit < 0 OR s.monthly_count + EXCLUDED.daily_count <= :monthlyLimit)
+            RETURNING daily_count, monthly_count
+            """;
+    
+    private static final String COUNTS_SQL = "SELECT CASE WHEN date = :date THEN daily_count ELSE 0 END, monthly_count "
+            + "FROM usage_stats WHERE user_id = :userId AND date >= :monthStart AND date <= :date "
+            + "ORDER BY date DESC LIMIT 1";
+    
+    private static final String RELEASE_SQL = "UPDATE usage_stats SET "
+            + "daily_count = GREATEST(daily_count - :units, 0), "
+            + "monthly_count = GREATEST(monthly_count - :units, 0), "
+            + "updated_at = CURRENT_TIMESTAMP "
+            + "WHERE user_id = :userId AND date = :date";
+    
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Reservation reserve(long userId, LocalDate date, int units, int dailyLimit, int monthlyLimit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("date", Timestamp.valueOf(date.atStartOfDay()))
+                .addValue("monthStart", Timestamp.valueOf(date.withDayOfMonth(1).atStartOfDay()))
+                .addValue("units", units)
+                .addValue("dailyLimit", dailyLimit)
+                .addValue("monthlyLimit", monthlyLimit);
+        
+        List<int[]> counts = jdbcTemplate.query(RESERVE_SQL, params, (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2)});
+        if (!counts.isEmpty()) {
+            return new Reservation(units, counts.get(0)[0], counts.get(0)[1]);
+        }
+        if (units > 1) {
+            // The whole batch would cross a limit; near the limit fall back to single units
+            return reserve(userId, date, 1, dailyLimit, monthlyLimit);
+        }
+        
+        List<int[]> current = jdbcTemplate.query(COUNTS_SQL, params, (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2)});
+        return current.isEmpty()
+                ? new Reservation(0, 0, 0)
+                : new Reservation(0, current.get(0)[0], current.get(0)[1]);
+    }
+    
+    @Override
+    public void release(long userId, LocalDate date, int units) {
+        jdbcTemplate.update(RELEASE_SQL, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("date", Timestamp.valueOf(date.atStartOfDay()))
+                .addValue("units", units));
+    }
+    
+    @Override
+    public boolean shared() {
+        return true;
+    }
+}
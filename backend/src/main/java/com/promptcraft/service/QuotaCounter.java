@@ -0,0 +1,101 @@
+package com.promptcraft.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One user's daily and monthly usage packed into a single AtomicLong as
+ * {@code [epoch day:16][daily:24][monthly:24]}, so a quota check and increment is one CAS
+ * with no locks or allocation. The day field lets the first request of a new day (or month)
+ * reset the counts in the same CAS.
+ */
+final class QuotaCounter {
+    
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    
+    private final AtomicLong state;
+    
+    // Last state written to usage_stats
+    volatile long checkpointed;
+    
+    QuotaCounter(long initial) {
+        this.state = new AtomicLong(initial);
+        this.checkpointed = initial;
+    }
+    
+    static long pack(long epochDay, long daily, long monthly) {
+        return (epochDay << (2 * COUNT_BITS)) | (Math.min(daily, COUNT_MASK) << COUNT_BITS) | Math.min(monthly, COUNT_MASK);
+    }
+    
+    static int day(long state) {
+        return (int) (state >>> (2 * COUNT_BITS));
+    }
+    
+    static int daily(long state) {
+        return (int) ((state >>> COUNT_BITS) & COUNT_MASK);
+    }
+    
+    static int monthly(long state) {
+        return (int) (state & COUNT_MASK);
+    }
+    
+    long state() {
+        return state.get();
+    }
+    
+    /**
+     * Outcome of {@link #tryAcquire}: how many units were granted, the state after the attempt
+     * and, when this call rolled the counter into a new day, the final state of the previous
+     * day (otherwise -1).
+     */
+    record Attempt(int granted, long state, long rolledOver) {
+    }
+    
+    // Counts up to units uses as far as both limits allow; negative limits are unlimited
+    Attempt tryAcquire(int today, int units, int dailyLimit, int monthlyLimit) {
+        while (true) {
+            long current = state.get();
+            int day = day(current);
+            int daily = daily(current);
+            int monthly = monthly(current);
+            if (day != today) {
+                monthly = sameMonth(day, today) ? monthly : 0;
+                daily = 0;
+            }
+            
+            int granted = units;
+            if (dailyLimit >= 0) {
+                granted = Math.min(granted, dailyLimit - daily);
+            }
+            if (monthlyLimit >= 0) {
+                granted = Math.min(granted, monthlyLimit - monthly);
+            }
+            granted = Math.max(granted, 0);
+            long next = pack(today, (long) daily + granted, (long) monthly + granted);
+            if (next == current || state.compareAndSet(current, next)) {
+                return new Attempt(granted, next, day != today ? current : -1);
+            }
+        }
+    }
+    
+    // Hands back units granted earlier the same day; a no-op once the counter has moved on
+    void release(int day, int units) {
+        while (true) {
+            long current = state.get();
+            if (day(current) != day) {
+                return;
+            }
+            long next = pack(day, Math.max(0, daily(current) - units), Math.max(0, monthly(current) - units));
+            if (next == current || state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+    
+    private static boolean sameMonth(int dayA, int dayB) {
+        LocalDate a = LocalDate.ofEpochDay(dayA);
+        LocalDate b = LocalDate.ofEpochDay(dayB);
+        return a.getYear() == b.getYear() && a.getMonthValue() == b.getMonthValue();
+    }
+}
@@ -0,0 +1,74 @@
+package com.promptcraft.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Units this node reserved in advance from a shared {@link UsageCounterStore}, packed as
+ * {@code [epoch day:32][remaining:32]} so taking one is a single CAS. Only the thread holding
+ * {@link #refillLock} goes back to the store, so a burst from one user costs one round trip.
+ */
+final class QuotaLease {
+    
+    final ReentrantLock refillLock = new ReentrantLock();
+    
+    private final AtomicLong state = new AtomicLong();
+    
+    // Set under refillLock once the lease is dropped from the map; callers then start a new one
+    boolean retired;
+    
+    // Store counts as of the last refill, leased units included
+    private volatile int dailyCount;
+    private volatile int monthlyCount;
+    
+    private static long pack(long epochDay, long remaining) {
+        return (epochDay << 32) | remaining;
+    }
+    
+    /**
+     * Takes one leased unit for {@code today}, returning how many are left afterwards, or -1
+     * when the lease is empty or belongs to another day.
+     */
+    int tryTake(int today) {
+        while (true) {
+            long current = state.get();
+            int remaining = (int) current;
+            if ((int) (current >>> 32) != today || remaining <= 0) {
+                return -1;
+            }
+            if (state.compareAndSet(current, pack(today, remaining - 1L))) {
+                return remaining - 1;
+            }
+        }
+    }
+    
+    // Called under refillLock with the lease already drained
+    void refill(int today, int units, int dailyCount, int monthlyCount) {
+        this.dailyCount = dailyCount;
+        this.monthlyCount = monthlyCount;
+        state.set(pack(today, units));
+    }
+    
+    /**
+     * Empties the lease and returns the unused units as {@code [epoch day, remaining]},
+     * or null when nothing was left.
+     */
+    long[] drain() {
+        long previous = state.getAndSet(0);
+        int remaining = (int) previous;
+        return remaining > 0 ? new long[]{previous >>> 32, remaining} : null;
+    }
+    
+    boolean isFor(LocalDate date) {
+        return (int) (state.get() >>> 32) == (int) date.toEpochDay();
+    }
+    
+    int dailyUsed(int remaining) {
+        return dailyCount - remaining;
+    }
+    
+    int monthlyUsed(int remaining) {
+        return monthlyCount - remaining;
+    }
+}
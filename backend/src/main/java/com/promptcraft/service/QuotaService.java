@@ -0,0 +1,197 @@
+package com.promptcraft.service;
+
+import com.promptcraft.model.User.SubscriptionTier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces the per-tier {@code subscription.plans.<tier>.daily-limit} and
+ * {@code monthly-limit} against the configured {@link UsageCounterStore}. When the store is
+ * shared between nodes, each node leases up to {@code quota.lease-size} units per trip to the
+ * store and hands them out locally; unused units go back when the day ends or on shutdown.
+ * Leases are capped at a tenth of the tighter limit, so small plans still count one by one.
+ */
+@Service
+public class QuotaService {
+    
+    private static final Logger log = LoggerFactory.getLogger(QuotaService.class);
+    
+    public record Decision(boolean allowed, int dailyLimit, int dailyUsed, int monthlyLimit, int monthlyUsed) {
+        
+        // Negative limits are unlimited
+        public int dailyRemaining() {
+            return dailyLimit < 0 ? -1 : Math.max(0, dailyLimit - dailyUsed);
+        }
+        
+        public int monthlyRemaining() {
+            return monthlyLimit < 0 ? -1 : Math.max(0, monthlyLimit - monthlyUsed);
+        }
+    }
+    
+    @Autowired
+    private UsageCounterStore store;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Long, QuotaLease> leases = new ConcurrentHashMap<>();
+    
+    private final int[] dailyLimits = new int[SubscriptionTier.values().length];
+    private final int[] monthlyLimits = new int[SubscriptionTier.values().length];
+    private final int[] leaseSizes = new int[SubscriptionTier.values().length];
+    
+    private Counter rejections;
+    private Timer reserveTimer;
+    
+    @PostConstruct
+    public void init() {
+        int leaseSize = store.shared() ? environment.getProperty("quota.lease-size", Integer.class, 20) : 1;
+        for (SubscriptionTier tier : SubscriptionTier.values()) {
+            String plan = "subscription.plans." + tier.name().toLowerCase() + ".";
+            int daily = environment.getProperty(plan + "daily-limit", Integer.class, -1);
+            int monthly = environment.getProperty(plan + "monthly-limit", Integer.class, -1);
+            dailyLimits[tier.ordinal()] = daily;
+            monthlyLimits[tier.ordinal()] = monthly;
+            
+            int size = leaseSize;
+            if (daily >= 0) {
+                size = Math.min(size, daily / 10);
+            }
+            if (monthly >= 0) {
+                size = Math.min(size, monthly / 10);
+            }
+            leaseSizes[tier.ordinal()] = Math.max(size, 1);
+        }
+        
+        Gauge.builder("quota.leases", leases, Map::size)
+                .description("Users holding a local quota lease")
+                .register(meterRegistry);
+        rejections = Counter.builder("quota.rejections")
+                .description("Requests rejected for exceeding a quota")
+                .register(meterRegistry);
+        reserveTimer = Timer.builder("quota.reserve")
+                .description("Time spent reserving quota from the usage counter store")
+                .register(meterRegistry);
+        log.info("Quota store: {} (lease size {})", store.getClass().getSimpleName(), leaseSize);
+    }
+    
+    public Decision acquire(Long userId, SubscriptionTier tier) {
+        LocalDate date = LocalDate.now();
+        int today = (int) date.toEpochDay();
+        int dailyLimit = dailyLimits[tier.ordinal()];
+        int monthlyLimit = monthlyLimits[tier.ordinal()];
+        int leaseSize = leaseSizes[tier.ordinal()];
+        
+        if (leaseSize == 1) {
+            // Nothing worth keeping locally; every request is its own reservation
+            UsageCounterStore.Reservation reservation = reserve(userId, date, 1, dailyLimit, monthlyLimit);
+            return decide(reservation.granted() > 0, dailyLimit, reservation.dailyCount(),
+                    monthlyLimit, reservation.monthlyCount());
+        }
+        
+        while (true) {
+            QuotaLease lease = leases.computeIfAbsent(userId, id -> new QuotaLease());
+            int remaining = lease.tryTake(today);
+            if (remaining >= 0) {
+                return decide(true, dailyLimit, lease.dailyUsed(remaining), monthlyLimit, lease.monthlyUsed(remaining));
+            }
+            
+            lease.refillLock.lock();
+            try {
+                if (lease.retired) {
+                    continue;
+                }
+                // Another thread may have refilled while this one waited
+                remaining = lease.tryTake(today);
+                if (remaining >= 0) {
+                    return decide(true, dailyLimit, lease.dailyUsed(remaining), monthlyLimit, lease.monthlyUsed(remaining));
+                }
+                returnUnused(userId, lease);
+                
+                UsageCounterStore.Reservation reservation = reserve(userId, date, leaseSize, dailyLimit, monthlyLimit);
+                if (reservation.granted() == 0) {
+                    return decide(false, dailyLimit, reservation.dailyCount(), monthlyLimit, reservation.monthlyCount());
+                }
+                // This request takes the first unit; the rest stay on the lease
+                int left = reservation.granted() - 1;
+                lease.refill(today, left, reservation.dailyCount(), reservation.monthlyCount());
+                return decide(true, dailyLimit, lease.dailyUsed(left), monthlyLimit, lease.monthlyUsed(left));
+            } finally {
+                lease.refillLock.unlock();
+            }
+        }
+    }
+    
+    private UsageCounterStore.Reservation reserve(Long userId, LocalDate date, int units, int dailyLimit, int monthlyLimit) {
+        return reserveTimer.record(() -> store.reserve(userId, date, units, dailyLimit, monthlyLimit));
+    }
+    
+    private Decision decide(boolean allowed, int dailyLimit, int dailyUsed, int monthlyLimit, int monthlyUsed) {
+        if (!allowed) {
+            rejections.increment();
+        }
+        return new Decision(allowed, dailyLimit, dailyUsed, monthlyLimit, monthlyUsed);
+    }
+    
+    // Called under the lease's refillLock
+    private void returnUnused(Long userId, QuotaLease lease) {
+        long[] unused = lease.drain();
+        if (unused == null) {
+            return;
+        }
+        try {
+            store.release(userId, LocalDate.ofEpochDay(unused[0]), (int) unused[1]);
+        } catch (DataAccessException e) {
+            // Worst case the user is charged for units they never used
+            log.warn("Could not release {} leased quota units for user {}", unused[1], userId, e);
+        }
+    }
+    
+    /**
+     * Drops leases left over from an earlier day, handing their unused units back. Today's
+     * leases stay, since their users are likely to come back.
+     */
+    @Scheduled(fixedDelayString = "${quota.checkpoint-interval-ms:10000}")
+    public void sweepLeases() {
+        LocalDate today = LocalDate.now();
+        leases.forEach((userId, lease) -> {
+            if (!lease.isFor(today)) {
+                retire(userId, lease);
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void releaseLeases() {
+        leases.forEach(this::retire);
+    }
+    
+    private void retire(Long userId, QuotaLease lease) {
+        lease.refillLock.lock();
+        try {
+            lease.retired = true;
+            leases.remove(userId, lease);
+            returnUnused(userId, lease);
+        } finally {
+            lease.refillLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.promptcraft.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports the official corpus at startup when {@code template.import.file} is set. Without a
+ * web server (e.g. {@code --spring.main.web-application-type=none}) the process exits once
+ * the import is done, which makes it a one-shot seeding command:
+ * <pre>
+ * java -jar promptcraft-backend.jar --spring.main.web-application-type=none \
+ *     --template.import.file=../src/data/prompts.json
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "template.import.file")
+public class TemplateImportRunner implements ApplicationRunner {
+    
+    @Autowired
+    private TemplateImportService templateImportService;
+    
+    @Autowired
+    private ApplicationContext context;
+    
+    @Value("${template.import.file}")
+    private Path file;
+    
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            templateImportService.importOfficial(in);
+        }
+        if (!(context instanceof WebServerApplicationContext)) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
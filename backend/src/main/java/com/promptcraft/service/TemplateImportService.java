@@ -0,0 +1,162 @@
+package com.promptcraft.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcraft.dto.TemplateImportItem;
+import com.promptcraft.dto.TemplateImportResult;
+import com.promptcraft.model.Template.Category;
+import com.promptcraft.search.TemplateSearchIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Loads the official prompt corpus ({@code src/data/prompts.json}) into {@code templates}.
+ * The JSON array (or NDJSON) is read one item at a time and upserted in JDBC batches of
+ * {@code template.import.batch-size} on the (title, md5(content)) key of official templates,
+ * so re-running an import only touches rows whose category or audience changed. The whole
+ * import is one transaction.
+ */
+@Service
+public class TemplateImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateImportService.class);
+
+    private static final int MAX_TITLE_LENGTH = 200;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO templates (title, content, category, for_devs, is_public, is_official, user_id)
+            VALUES (?, ?, ?, ?, TRUE, TRUE, NULL)
+            ON CONFLICT (title, md5(content)) WHERE is_official DO UPDATE SET
+                category = EXCLUDED.category,
+                for_devs = EXCLUDED.for_devs,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE templates.category IS DISTINCT FROM EXCLUDED.category
+               OR templates.for_devs IS DISTINCT FROM EXCLUDED.for_devs
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private TemplateSearchIndex searchIndex;
+
+    @Value("${template.import.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TemplateImportResult importOfficial(InputStream in) {
+        long start = System.nanoTime();
+        long[] counts = transactionTemplate.execute(status -> {
+            try {
+                return upsertAll(in);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid template import: " + e.getMessage(), e);
+            }
+        });
+
+        if (searchIndex != null && counts[1] > 0) {
+            searchIndex.load();
+        }
+
+        long elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        TemplateImportResult result = new TemplateImportResult(counts[0], counts[1], counts[2], counts[3],
+                elapsedMs, counts[0] * 1000 / elapsedMs);
+        log.info("Imported {} official templates ({} written, {} unchanged, {} skipped) in {} ms, {} rows/s",
+                result.getRead(), result.getWritten(), result.getUnchanged(), result.getSkipped(),
+                result.getElapsedMs(), result.getRowsPerSecond());
+        return result;
+    }
+
+    // Returns {read, written, unchanged, skipped}
+    private long[] upsertAll(InputStream in) throws IOException {
+        long[] counts = new long[4];
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Item " + counts[0] + " is not a template object");
+                }
+                TemplateImportItem item = objectMapper.readValue(parser, TemplateImportItem.class);
+                counts[0]++;
+                Object[] row = row(item);
+                if (row == null) {
+                    counts[3]++;
+                } else {
+                    batch.add(row);
+                    if (batch.size() >= batchSize) {
+                        flush(batch, counts);
+                    }
+                }
+                token = parser.nextToken();
+            }
+        }
+        flush(batch, counts);
+        return counts;
+    }
+
+    private void flush(List<Object[]> batch, long[] counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int updated : jdbcTemplate.batchUpdate(UPSERT_SQL, batch)) {
+            counts[updated > 0 ? 1 : 2]++;
+        }
+        batch.clear();
+    }
+
+    private static Object[] row(TemplateImportItem item) {
+        String title = item.getAct() != null ? item.getAct().trim() : "";
+        String content = item.getContent() != null ? item.getContent() : item.getPrompt();
+        if (title.isEmpty() || title.length() > MAX_TITLE_LENGTH || content == null || content.isBlank()) {
+            return null;
+        }
+        boolean forDevs = Boolean.TRUE.equals(item.getForDevs());
+        return new Object[]{title, content, guessCategory(title, content, forDevs).name(), forDevs};
+    }
+
+    // Same rules as scripts/generate-migration.js, which produced the seeded official templates
+    static Category guessCategory(String act, String prompt, boolean forDevs) {
+        String text = (act + " " + prompt).toLowerCase(Locale.ROOT);
+
+        if (forDevs) return Category.DEVELOPMENT;
+        if (text.contains("translate") || text.contains("language") || text.contains("pronunciation")) return Category.LANGUAGE;
+        if (text.contains("teacher") || text.contains("learn") || text.contains("education")) return Category.EDUCATION;
+        if (text.contains("business") || text.contains("interview") || text.contains("advertis")) return Category.BUSINESS;
+        if (text.contains("story") || text.contains("poet") || text.contains("creative") || text.contains("rapper")) return Category.CREATIVE;
+        if (text.contains("excel") || text.contains("productivity")) return Category.PRODUCTIVITY;
+        if (text.contains("game") || text.contains("entertain") || text.contains("comedian")) return Category.ENTERTAINMENT;
+
+        return Category.GENERAL;
+    }
+}
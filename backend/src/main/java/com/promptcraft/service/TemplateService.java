@@ -1,19 +1,37 @@
 package com.promptcraft.service;
 
+import com.promptcraft.dto.CursorPage;
+import com.promptcraft.dto.FavoriteResponse;
 import com.promptcraft.dto.TemplateRequest;
 import com.promptcraft.dto.TemplateResponse;
-import com.promptcraft.model.Favorite;
+import com.promptcraft.dto.TemplateSummary;
 import com.promptcraft.model.Template;
 import com.promptcraft.model.Template.Category;
 import com.promptcraft.model.User;
 import com.promptcraft.repository.FavoriteRepository;
+import com.promptcraft.repository.FavoriteToggle;
 import com.promptcraft.repository.TemplateRepository;
+import com.promptcraft.repository.TemplateSearchHit;
 import com.promptcraft.repository.UserRepository;
+import com.promptcraft.search.TemplateSearchIndex;
+import com.promptcraft.security.UserPrincipal;
+import com.promptcraft.security.UserPrincipalCache;
+import com.promptcraft.search.Tokenizer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TemplateService {
@@ -27,36 +45,107 @@ public class TemplateService {
     @Autowired
     private FavoriteRepository favoriteRepository;
     
-    public Page<TemplateResponse> getAllPublicTemplates(Pageable pageable, String email) {
-        Page<Template> templates = templateRepository.findByIsPublicTrue(pageable);
-        return templates.map(template -> mapToResponse(template, email));
+    @Autowired
+    private UsageCountBuffer usageCountBuffer;
+    
+    @Autowired
+    private FavoriteCache favoriteCache;
+    
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
+    // Present only when template.search.backend=memory
+    @Autowired(required = false)
+    private TemplateSearchIndex searchIndex;
+    
+    public Page<TemplateSummary> getAllPublicTemplates(Pageable pageable, String email) {
+        Page<TemplateSummary> templates = templateRepository.findPublicSummaries(pageable);
+        markFavorites(templates.getContent(), email);
+        return templates;
+    }
+    
+    public Page<TemplateSummary> searchTemplates(String searchTerm, Category category, Boolean forDevs,
+                                                 Pageable pageable, String email) {
+        Page<TemplateSearchHit> hits;
+        boolean inMemory = searchIndex != null && searchIndex.isReady();
+        if (inMemory) {
+            hits = searchIndex.search(searchTerm, category, forDevs, pageable);
+        } else {
+            String tsQuery = toPrefixTsQuery(searchTerm);
+            if (tsQuery == null) {
+                return Page.empty(pageable);
+            }
+            hits = templateRepository.searchPublicTemplates(
+                    tsQuery, category != null ? category.name() : null, forDevs, pageable);
+        }
+        
+        List<Long> ids = hits.stream().map(TemplateSearchHit::getId).toList();
+        Map<Long, TemplateSummary> summaries = templateRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(TemplateSummary::getId, Function.identity()));
+        
+        // Keep rank order; skip hits deleted between the search and the hydration query
+        List<TemplateSummary> content = hits.stream()
+                .filter(hit -> summaries.containsKey(hit.getId()))
+                .map(hit -> {
+                    TemplateSummary summary = summaries.get(hit.getId());
+                    summary.setSnippet(inMemory
+                            ? searchIndex.highlight(summary.getContentPreview(), searchTerm)
+                            : hit.getSnippet());
+                    return summary;
+                })
+                .toList();
+        markFavorites(content, email);
+        return new PageImpl<>(content, pageable, hits.getTotalElements());
+    }
+    
+    public Page<TemplateSummary> getTemplatesByCategory(Category category, Pageable pageable, String email) {
+        Page<TemplateSummary> templates = templateRepository.findPublicSummariesByCategory(category, pageable);
+        markFavorites(templates.getContent(), email);
+        return templates;
+    }
+    
+    public Page<TemplateSummary> getTemplatesByForDevs(Boolean forDevs, Pageable pageable, String email) {
+        Page<TemplateSummary> templates = templateRepository.findPublicSummariesByForDevs(forDevs, pageable);
+        markFavorites(templates.getContent(), email);
+        return templates;
     }
     
-    public Page<TemplateResponse> searchTemplates(String searchTerm, Pageable pageable, String email) {
-        Page<Template> templates = templateRepository.searchPublicTemplates(searchTerm, pageable);
-        return templates.map(template -> mapToResponse(template, email));
+    public CursorPage<TemplateSummary> getPublicTemplatesAfter(String cursor, int size, String email) {
+        TemplateCursor position = TemplateCursor.decode(cursor);
+        Slice<TemplateSummary> templates = templateRepository.findPublicBefore(
+                position.createdAt(), position.id(), PageRequest.of(0, size));
+        return toCursorPage(templates, email);
     }
     
-    public Page<TemplateResponse> getTemplatesByCategory(Category category, Pageable pageable, String email) {
-        Page<Template> templates = templateRepository.findByCategoryAndIsPublicTrue(category, pageable);
-        return templates.map(template -> mapToResponse(template, email));
+    public CursorPage<TemplateSummary> getTemplatesByCategoryAfter(Category category, String cursor, int size,
+                                                                   String email) {
+        TemplateCursor position = TemplateCursor.decode(cursor);
+        Slice<TemplateSummary> templates = templateRepository.findPublicByCategoryBefore(
+                category, position.createdAt(), position.id(), PageRequest.of(0, size));
+        return toCursorPage(templates, email);
     }
     
-    public Page<TemplateResponse> getTemplatesByForDevs(Boolean forDevs, Pageable pageable, String email) {
-        Page<Template> templates = templateRepository.findByForDevsAndIsPublicTrue(forDevs, pageable);
-        return templates.map(template -> mapToResponse(template, email));
+    public CursorPage<TemplateSummary> getTemplatesByForDevsAfter(Boolean forDevs, String cursor, int size,
+                                                                  String email) {
+        TemplateCursor position = TemplateCursor.decode(cursor);
+        Slice<TemplateSummary> templates = templateRepository.findPublicByForDevsBefore(
+                forDevs, position.createdAt(), position.id(), PageRequest.of(0, size));
+        return toCursorPage(templates, email);
     }
     
     public TemplateResponse getTemplateById(Long id, String email) {
         Template template = templateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Template not found"));
-        return mapToResponse(template, email);
+        return mapToResponse(template, findFavoritedIds(email));
     }
     
     @Transactional
     public TemplateResponse createTemplate(TemplateRequest request, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        User user = userRepository.getReferenceById(userId);
         
         Template template = new Template();
         template.setTitle(request.getTitle());
@@ -69,7 +158,8 @@ public class TemplateService {
         template.setUser(user);
         
         template = templateRepository.save(template);
-        return mapToResponse(template, email);
+        reindexAfterCommit(template);
+        return mapToResponse(template, findFavoritedIds(email));
     }
     
     @Transactional
@@ -77,10 +167,12 @@ public class TemplateService {
         Template template = templateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Template not found"));
         
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
         
-        if (!template.getUser().getId().equals(user.getId())) {
+        if (template.getUser() == null || !template.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to update this template");
         }
         
@@ -92,7 +184,8 @@ public class TemplateService {
         template.setIsPublic(request.getIsPublic());
         
         template = templateRepository.save(template);
-        return mapToResponse(template, email);
+        reindexAfterCommit(template);
+        return mapToResponse(template, findFavoritedIds(email));
     }
     
     @Transactional
@@ -100,25 +193,129 @@ public class TemplateService {
         Template template = templateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Template not found"));
         
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
         
-        if (!template.getUser().getId().equals(user.getId())) {
+        if (template.getUser() == null || !template.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to delete this template");
         }
         
         templateRepository.delete(template);
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.remove(id));
+        }
     }
     
     @Transactional
+    public FavoriteResponse addFavorite(Long templateId, String email) {
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        FavoriteToggle result = favoriteRepository.addFavorite(userId, templateId);
+        if (!result.getFound()) {
+            throw new RuntimeException("Template not found");
+        }
+        afterCommit(() -> favoriteCache.added(userId, templateId));
+        return new FavoriteResponse(templateId, true, result.getFavoriteCount());
+    }
+    
+    @Transactional
+    public FavoriteResponse removeFavorite(Long templateId, String email) {
+        Long userId = resolveUserId(email);
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        FavoriteToggle result = favoriteRepository.removeFavorite(userId, templateId);
+        if (!result.getFound()) {
+            throw new RuntimeException("Template not found");
+        }
+        afterCommit(() -> favoriteCache.removed(userId, templateId));
+        return new FavoriteResponse(templateId, false, result.getFavoriteCount());
+    }
+    
     public void incrementUsageCount(Long id) {
-        Template template = templateRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Template not found"));
-        template.incrementUsageCount();
-        templateRepository.save(template);
+        if (!templateRepository.existsById(id)) {
+            throw new RuntimeException("Template not found");
+        }
+        usageCountBuffer.increment(id);
+    }
+    
+    private void reindexAfterCommit(Template template) {
+        if (searchIndex != null) {
+            afterCommit(() -> searchIndex.index(template));
+        }
+    }
+    
+    // Keeps in-memory state (search index, favorite sets) in step with committed data only
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    /**
+     * Turns free text into a prefix-matching tsquery ("prompt eng" -> "prompt:* & eng:*")
+     * so search-as-you-type matches partial words. Returns null if no searchable terms remain.
+     */
+    static String toPrefixTsQuery(String searchTerm) {
+        String tsQuery = Tokenizer.tokenize(searchTerm).stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+    
+    private CursorPage<TemplateSummary> toCursorPage(Slice<TemplateSummary> templates, String email) {
+        List<TemplateSummary> content = templates.getContent();
+        markFavorites(content, email);
+        
+        String nextCursor = null;
+        if (templates.hasNext()) {
+            TemplateSummary last = content.get(content.size() - 1);
+            nextCursor = new TemplateCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, content.size(), templates.hasNext(), nextCursor);
+    }
+    
+    private void markFavorites(List<TemplateSummary> summaries, String email) {
+        FavoriteIdSet favoritedIds = findFavoritedIds(email);
+        if (favoritedIds != null) {
+            summaries.forEach(summary -> summary.setIsFavorited(favoritedIds.contains(summary.getId())));
+        }
+    }
+    
+    /**
+     * The caller's favorited template IDs from the per-user cache; only a cold cache reads
+     * the database. Returns null for anonymous or unknown callers.
+     */
+    private FavoriteIdSet findFavoritedIds(String email) {
+        Long userId = resolveUserId(email);
+        return userId != null ? favoriteCache.get(userId) : null;
     }
     
-    private TemplateResponse mapToResponse(Template template, String email) {
+    // Uses the authenticated principal's id when available, otherwise the cached principal for the email
+    private Long resolveUserId(String email) {
+        if (email == null) {
+            return null;
+        }
+        return UserPrincipal.current()
+                .filter(principal -> principal.email().equals(email))
+                .or(() -> principalCache.get(email))
+                .map(UserPrincipal::id)
+                .orElse(null);
+    }
+    
+    // Package-private for the mapping benchmark in backend/benchmarks
+    TemplateResponse mapToResponse(Template template, FavoriteIdSet favoritedIds) {
         TemplateResponse response = new TemplateResponse();
         response.setId(template.getId());
         response.setTitle(template.getTitle());
@@ -138,13 +335,8 @@ public class TemplateService {
             response.setCreatorEmail(template.getUser().getEmail());
         }
         
-        if (email != null) {
-            User user = userRepository.findByEmail(email).orElse(null);
-            if (user != null) {
-                response.setIsFavorited(
-                    favoriteRepository.existsByUserIdAndTemplateId(user.getId(), template.getId())
-                );
-            }
+        if (favoritedIds != null) {
+            response.setIsFavorited(favoritedIds.contains(template.getId()));
         }
         
         return response;
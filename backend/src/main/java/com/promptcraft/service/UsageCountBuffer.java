@@ -0,0 +1,117 @@
+package com.promptcraft.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for template usage counts. Clicks are absorbed by a LongAdder per
+ * template and flushed every {@code template.usage.flush-interval-ms} as one JDBC batch of
+ * relative {@code usage_count = usage_count + ?} updates, so concurrent clicks never
+ * overwrite each other and the template row is never loaded.
+ */
+@Component
+public class UsageCountBuffer {
+    
+    private static final Logger log = LoggerFactory.getLogger(UsageCountBuffer.class);
+    
+    private static final String FLUSH_SQL = "UPDATE templates SET usage_count = usage_count + ? WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    private Timer flushTimer;
+    private Counter flushFailures;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("templates.usage.pending.increments", this, UsageCountBuffer::pendingIncrements)
+                .description("Usage increments buffered in memory and not yet written")
+                .register(meterRegistry);
+        Gauge.builder("templates.usage.pending.templates", this, UsageCountBuffer::pendingTemplates)
+                .description("Templates with buffered usage increments")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("templates.usage.flush")
+                .description("Time spent writing buffered usage increments")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("templates.usage.flush.failures")
+                .register(meterRegistry);
+    }
+    
+    public void increment(Long templateId) {
+        pending.computeIfAbsent(templateId, id -> new LongAdder()).increment();
+    }
+    
+    public long pendingIncrements() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+    
+    public long pendingTemplates() {
+        return pending.values().stream().filter(adder -> adder.sum() != 0).count();
+    }
+    
+    @Scheduled(fixedDelayString = "${template.usage.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>();
+            List<LongAdder> adders = new ArrayList<>();
+            for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+                long delta = entry.getValue().sum();
+                if (delta != 0) {
+                    batch.add(new Object[]{delta, entry.getKey()});
+                    adders.add(entry.getValue());
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            
+            // Subtract exactly what was written so clicks that raced with the flush carry over
+            for (int i = 0; i < adders.size(); i++) {
+                adders.get(i).add(-(long) batch.get(i)[0]);
+            }
+            log.debug("Flushed usage increments for {} templates", batch.size());
+        } catch (DataAccessException e) {
+            // Deltas stay buffered and are retried on the next flush
+            flushFailures.increment();
+            log.warn("Could not flush template usage counts", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,36 @@
+package com.promptcraft.service;
+
+import java.time.LocalDate;
+
+/**
+ * Where per-user daily and monthly usage counts live. {@link QuotaService} reserves units
+ * from the store and hands back any it could not use. Pick the implementation with
+ * {@code quota.store}: {@code memory} (default, single node) or {@code postgres} (shared by
+ * every node through {@code usage_stats}).
+ */
+public interface UsageCounterStore {
+    
+    /**
+     * Result of a reservation: units granted (0 when a limit is reached) and the user's counts
+     * for the day afterwards, including the granted units.
+     */
+    record Reservation(int granted, int dailyCount, int monthlyCount) {
+    }
+    
+    /**
+     * Counts up to {@code units} uses against the user's day, never past either limit.
+     * Negative limits are unlimited. May grant fewer units than requested.
+     */
+    Reservation reserve(long userId, LocalDate date, int units, int dailyLimit, int monthlyLimit);
+    
+    /**
+     * Returns units reserved for {@code date} that were never used.
+     */
+    void release(long userId, LocalDate date, int units);
+    
+    /**
+     * Whether other nodes see the same counts. Only a shared store is worth leasing from in
+     * batches; a local one is already a single CAS per request.
+     */
+    boolean shared();
+}
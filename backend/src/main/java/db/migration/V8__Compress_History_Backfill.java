@@ -0,0 +1,58 @@
+package db.migration;
+
+import com.promptcraft.model.CompressedText;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+/**
+ * Compresses history bodies that V7 converted as raw UTF-8. Rows are read through a cursor
+ * and rewritten in JDBC batches; bodies below the threshold or that do not shrink stay raw.
+ */
+public class V8__Compress_History_Backfill extends BaseJavaMigration {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, created_at, prompt, analysis FROM history "
+                             + "WHERE length(prompt) > ? OR length(analysis) > ?");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE history SET prompt = ?, analysis = ? WHERE id = ? AND created_at = ?")) {
+            select.setInt(1, CompressedText.THRESHOLD);
+            select.setInt(2, CompressedText.THRESHOLD);
+            select.setFetchSize(BATCH_SIZE);
+            
+            int pending = 0;
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    long id = rows.getLong(1);
+                    Timestamp createdAt = rows.getTimestamp(2);
+                    byte[] analysis = rows.getBytes(4);
+                    update.setBytes(1, recompress(rows.getBytes(3)));
+                    update.setBytes(2, analysis != null ? recompress(analysis) : null);
+                    update.setLong(3, id);
+                    update.setTimestamp(4, createdAt);
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+    
+    private static byte[] recompress(byte[] stored) {
+        return CompressedText.encode(CompressedText.decode(stored));
+    }
+}
@@ -0,0 +1,39 @@
+-- Natural key for official templates, so corpus imports can upsert.
+-- The corpus reuses some titles ("Life Coach", "Chess Player", ...), so the key is title plus content.
+-- Keep the oldest row if duplicates already exist, folding the others' favorites and usage into it.
+CREATE TEMPORARY TABLE official_template_duplicates AS
+SELECT id AS duplicate_id, kept_id
+FROM (
+    SELECT id, MIN(id) OVER (PARTITION BY title, md5(content)) AS kept_id
+    FROM templates
+    WHERE is_official
+) official
+WHERE id <> kept_id;
+
+-- Deleting a template cascades to its favorites, so move them to the kept row first
+INSERT INTO favorites (user_id, template_id, created_at)
+SELECT f.user_id, d.kept_id, f.created_at
+FROM favorites f
+JOIN official_template_duplicates d ON d.duplicate_id = f.template_id
+ON CONFLICT (user_id, template_id) DO NOTHING;
+
+UPDATE templates t
+SET usage_count = t.usage_count + moved.usage_count
+FROM (
+    SELECT d.kept_id, SUM(dup.usage_count) AS usage_count
+    FROM official_template_duplicates d
+    JOIN templates dup ON dup.id = d.duplicate_id
+    GROUP BY d.kept_id
+) moved
+WHERE t.id = moved.kept_id;
+
+DELETE FROM templates
+WHERE id IN (SELECT duplicate_id FROM official_template_duplicates);
+
+UPDATE templates t
+SET favorite_count = (SELECT COUNT(*) FROM favorites f WHERE f.template_id = t.id)
+WHERE t.id IN (SELECT kept_id FROM official_template_duplicates);
+
+DROP TABLE official_template_duplicates;
+
+CREATE UNIQUE INDEX ux_templates_official_key ON templates(title, md5(content)) WHERE is_official;
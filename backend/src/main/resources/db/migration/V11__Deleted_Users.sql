@@ -0,0 +1,19 @@
+-- Stateless access tokens are never checked against the users table, so remember deleted
+-- accounts (however they were deleted) for the token deny-list until their tokens expire.
+CREATE TABLE deleted_users (
+    user_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_deleted_users_deleted_at ON deleted_users(deleted_at);
+
+CREATE FUNCTION record_deleted_user() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO deleted_users (user_id) VALUES (OLD.id) ON CONFLICT (user_id) DO NOTHING;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_record_deleted
+AFTER DELETE ON users
+FOR EACH ROW EXECUTE FUNCTION record_deleted_user();
@@ -0,0 +1,13 @@
+-- V3__Template_Search_Index.sql
+-- Full-text search over templates, replacing LOWER(...) LIKE '%term%' scans
+
+-- Weighted search document kept up to date by Postgres on every insert/update
+ALTER TABLE templates ADD COLUMN search_vector TSVECTOR
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'C')
+    ) STORED;
+
+-- Create Indexes
+CREATE INDEX idx_templates_search_vector ON templates USING GIN (search_vector);
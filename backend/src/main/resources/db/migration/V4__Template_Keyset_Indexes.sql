@@ -0,0 +1,7 @@
+-- V4__Template_Keyset_Indexes.sql
+-- Composite indexes for cursor (keyset) pagination on (created_at, id)
+
+-- Create Indexes
+CREATE INDEX idx_templates_public_created ON templates(is_public, created_at, id);
+CREATE INDEX idx_templates_public_category_created ON templates(is_public, category, created_at, id);
+CREATE INDEX idx_templates_public_for_devs_created ON templates(is_public, for_devs, created_at, id);
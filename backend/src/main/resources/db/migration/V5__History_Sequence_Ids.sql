@@ -0,0 +1,4 @@
+-- History ids come from a pooled sequence (allocationSize = 50) so inserts can be batched.
+-- The column default still works for single-row writers: each nextval is the top of a block
+-- Hibernate never hands out.
+ALTER SEQUENCE history_id_seq INCREMENT BY 50;
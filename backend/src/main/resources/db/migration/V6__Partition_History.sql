@@ -0,0 +1,48 @@
+-- Range-partition history by month. Rows are copied into the new parent, which routes them
+-- to monthly partitions; later months are created ahead of time by HistoryPartitionManager.
+
+ALTER TABLE history RENAME TO history_unpartitioned;
+ALTER SEQUENCE history_id_seq OWNED BY NONE;
+
+CREATE TABLE history (
+    id BIGINT NOT NULL DEFAULT nextval('history_id_seq'),
+    user_id BIGINT NOT NULL,
+    prompt TEXT NOT NULL,
+    analysis TEXT,
+    quality_score INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+-- Created on the parent, so every partition gets its own copy
+CREATE INDEX idx_history_user_created ON history(user_id, created_at DESC);
+
+-- Catches rows outside the monthly partitions; the partition manager moves them out
+CREATE TABLE history_default PARTITION OF history DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE) + INTERVAL '3 months';
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_DATE))
+    INTO month_start
+    FROM history_unpartitioned;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF history FOR VALUES FROM (%L) TO (%L)',
+            'history_' || to_char(month_start, '"y"YYYY"m"MM'),
+            month_start,
+            month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO history (id, user_id, prompt, analysis, quality_score, created_at)
+SELECT id, user_id, prompt, analysis, quality_score, created_at
+FROM history_unpartitioned;
+
+DROP TABLE history_unpartitioned;
+ALTER SEQUENCE history_id_seq OWNED BY history.id;
@@ -0,0 +1,16 @@
+-- History bodies become BYTEA in the CompressedText format: a header byte (0 = raw UTF-8,
+-- 1 = LZ4) followed by the body. Existing rows are converted as raw here and compressed by
+-- the V8 Java migration.
+ALTER TABLE history
+    ALTER COLUMN prompt TYPE BYTEA USING '\x00'::bytea || convert_to(prompt, 'UTF8'),
+    ALTER COLUMN analysis TYPE BYTEA USING '\x00'::bytea || convert_to(analysis, 'UTF8');
+
+-- Template content stays TEXT for full-text search and previews; let TOAST use LZ4 for it
+-- where the server supports it (PostgreSQL 14+ built with lz4).
+DO $$
+BEGIN
+    ALTER TABLE templates ALTER COLUMN content SET COMPRESSION lz4;
+EXCEPTION
+    WHEN feature_not_supported OR syntax_error OR invalid_parameter_value THEN
+        RAISE NOTICE 'LZ4 TOAST compression not available, keeping the default';
+END $$;
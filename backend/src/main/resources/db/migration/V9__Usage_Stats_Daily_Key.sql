@@ -0,0 +1,9 @@
+-- One usage_stats row per user and day, so quota checkpoints can upsert.
+-- Keep the highest counts if duplicates already exist.
+DELETE FROM usage_stats a
+USING usage_stats b
+WHERE a.user_id = b.user_id
+  AND a.date = b.date
+  AND (a.daily_count, a.id) < (b.daily_count, b.id);
+
+CREATE UNIQUE INDEX ux_usage_stats_user_date ON usage_stats(user_id, date);
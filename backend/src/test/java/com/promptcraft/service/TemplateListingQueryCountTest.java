@@ -0,0 +1,123 @@
+package com.promptcraft.service;
+
+import com.promptcraft.metrics.SqlStatementCounter;
+import com.promptcraft.model.Template.Category;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Template listings must cost the same number of statements whatever the page size: the page,
+ * its creators and the caller's favorites are each fetched once, never per row.
+ */
+@SpringBootTest(properties = "management.server.port=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TemplateListingQueryCountTest {
+    
+    private static final String EMAIL = "query-count@promptcraft.dev";
+    private static final int TEMPLATES = 60;
+    
+    private static EmbeddedPostgres postgres;
+    
+    @Autowired
+    private TemplateService templateService;
+    
+    @Autowired
+    private SqlStatementCounter statementCounter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+    
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+    
+    // Every template is created by the caller, so creator lookups and favorites both apply to each row
+    @BeforeAll
+    void seed() {
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (email, password_hash, first_name, last_name) "
+                + "VALUES (?, 'x', 'Query', 'Count') RETURNING id", Long.class, EMAIL);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < TEMPLATES; i++) {
+            rows.add(new Object[]{"Seeded template " + i, "Act as a seeded reviewer number " + i, userId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO templates (title, content, category, for_devs, is_public, is_official, user_id) "
+                + "VALUES (?, ?, 'CREATIVE', FALSE, TRUE, FALSE, ?)", rows);
+        jdbcTemplate.update("INSERT INTO favorites (user_id, template_id) "
+                + "SELECT ?, id FROM templates WHERE user_id = ? AND id % 3 = 0", userId, userId);
+    }
+    
+    @Test
+    void publicListingCostIsIndependentOfPageSize() {
+        assertConstant(pageable -> templateService.getAllPublicTemplates(pageable, EMAIL).getNumberOfElements());
+    }
+    
+    @Test
+    void categoryListingCostIsIndependentOfPageSize() {
+        assertConstant(pageable -> templateService.getTemplatesByCategory(Category.CREATIVE, pageable, EMAIL)
+                .getNumberOfElements());
+    }
+    
+    @Test
+    void searchCostIsIndependentOfPageSize() {
+        // Search pages are ordered by rank, as the controller passes them unsorted
+        assertConstant(pageable -> templateService.searchTemplates("seeded", null, null, unsorted(pageable), EMAIL)
+                .getNumberOfElements());
+    }
+    
+    private void assertConstant(Function<Pageable, Integer> listing) {
+        // Warm the principal and favorites caches so both measured calls see the same state
+        listing.apply(page(5));
+        
+        int small = statements(listing, page(5), 5);
+        int large = statements(listing, page(50), 50);
+        assertThat(large).as("statements for a page of 50 vs a page of 5").isEqualTo(small);
+    }
+    
+    private int statements(Function<Pageable, Integer> listing, Pageable pageable, int expectedRows) {
+        statementCounter.begin(false);
+        int rows;
+        SqlStatementCounter.Capture capture;
+        try {
+            rows = listing.apply(pageable);
+        } finally {
+            capture = statementCounter.end();
+        }
+        assertThat(rows).isEqualTo(expectedRows);
+        return capture.count();
+    }
+    
+    private static Pageable page(int size) {
+        return PageRequest.of(0, size, Sort.by("createdAt").descending());
+    }
+    
+    private static Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+}